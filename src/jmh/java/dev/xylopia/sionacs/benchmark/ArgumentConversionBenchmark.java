@@ -0,0 +1,80 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dan200.computercraft.api.lua.IArguments;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectArguments;
+import dev.xylopia.sionacs.integration.computercraft.TardimMethodTable;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+
+/**
+ * Cost of decoding Lua arguments into Java parameters.
+ * Lua numbers arrive as doubles, as they do from a real computer, and
+ * {@link ObjectArguments} stands in for the Lua VM's argument list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArgumentConversionBenchmark {
+    private final IArguments coordinates = new ObjectArguments(100.0, 64.0, -200.0);
+    private final IArguments axisAmount = new ObjectArguments("x", 16.0);
+    private final IArguments noArguments = new ObjectArguments();
+
+    private TardimAPI api;
+    private int setTravelLocation;
+    private int coordAdd;
+    private int getFuel;
+
+    @Setup
+    public void setup() {
+        BenchHost host = new BenchHost(new BenchTardimData(1, "Owner", 0));
+        host.publishSnapshot();
+        api = new TardimAPI(host);
+
+        setTravelLocation = TardimMethodTable.indexOf("setTravelLocation");
+        coordAdd = TardimMethodTable.indexOf("coordAdd");
+        getFuel = TardimMethodTable.indexOf("getFuel");
+    }
+
+    /**
+     * The decoding alone, for comparison with the full invocations.
+     */
+    @Benchmark
+    public void decodeIntegers(Blackhole blackhole) throws LuaException {
+        blackhole.consume(coordinates.getInt(0));
+        blackhole.consume(coordinates.getInt(1));
+        blackhole.consume(coordinates.getInt(2));
+    }
+
+    /**
+     * The destination prewarmer stays off without a loaded config, so this only sets the TARDIM's
+     * destination and doesn't queue a prewarm request on every call.
+     */
+    @Benchmark
+    public Object invokeIntegers() throws LuaException {
+        return TardimMethodTable.invoke(setTravelLocation, api, coordinates);
+    }
+
+    @Benchmark
+    public Object invokeStringAndInteger() throws LuaException {
+        return TardimMethodTable.invoke(coordAdd, api, axisAmount);
+    }
+
+    /**
+     * A getter which only reads the snapshot, so this is the dispatch cost with nothing to decode.
+     */
+    @Benchmark
+    public Object invokeNoArguments() throws LuaException {
+        return TardimMethodTable.invoke(getFuel, api, noArguments);
+    }
+}
@@ -0,0 +1,83 @@
+package dev.xylopia.sionacs.benchmark;
+
+import com.swdteam.tardim.TardimData;
+
+import dan200.computercraft.api.peripheral.AttachedComputerSet;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.integration.tardim.TardimSnapshot;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stand-in for the peripheral's block entity, holding a single TARDIM with no level.
+ * Snapshots are published the same way as in game.
+ */
+public class BenchHost implements TardimHost {
+    private final TardimData data;
+    private final AttachedComputerSet computers = new AttachedComputerSet();
+    private volatile TardimSnapshot snapshot = null;
+    private volatile boolean snapshotPublished = false;
+    private long snapshotVersion = 0L;
+
+    public BenchHost(TardimData data) {
+        this.data = data;
+    }
+
+    @Override
+    public TardimData getTardimData() {
+        return data;
+    }
+
+    @Nullable
+    @Override
+    public TardimSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean isSnapshotPublished() {
+        return snapshotPublished;
+    }
+
+    @Override
+    public void publishSnapshot() {
+        TardimSnapshot current = snapshot;
+        if (current == null || !current.matches(data)) {
+            snapshot = TardimSnapshot.capture(data, ++snapshotVersion);
+        }
+        snapshotPublished = true;
+    }
+
+    @Override
+    public AttachedComputerSet getComputers() {
+        return computers;
+    }
+
+    @Override
+    public void attachComputer(IComputerAccess computer) {
+        computers.add(computer);
+    }
+
+    @Override
+    public void detachComputer(IComputerAccess computer) {
+        computers.remove(computer);
+    }
+
+    @Nullable
+    @Override
+    public Level getLevel() {
+        return null;
+    }
+
+    @Override
+    public BlockPos getBlockPos() {
+        return BlockPos.ZERO;
+    }
+
+    @Override
+    public boolean isRemoved() {
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.swdteam.tardim.TardimData;
+import com.swdteam.tardim.TardimData.Location;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+
+/**
+ * In-memory TARDIM data for benchmarks.
+ * The owner and companions normally come from a player, so they are supplied directly here,
+ * and saving does nothing.
+ */
+public class BenchTardimData extends TardimData {
+    @SuppressWarnings("removal")
+    public static final ResourceKey<Level> OVERWORLD = ResourceKey.create(Registries.DIMENSION, new ResourceLocation("minecraft", "overworld"));
+    @SuppressWarnings("removal")
+    public static final ResourceKey<Level> NETHER = ResourceKey.create(Registries.DIMENSION, new ResourceLocation("minecraft", "the_nether"));
+
+    private static final Gson GSON = new Gson();
+
+    private final String ownerName;
+    private final List<Companion> companions = new ArrayList<>();
+
+    public BenchTardimData(int id, String ownerName, int companionCount) {
+        super(id);
+        this.ownerName = ownerName;
+
+        setFuel(75.0);
+        setCurrentLocation(new Location(new BlockPos(100, 64, -200), OVERWORLD).setFacing(Direction.NORTH));
+        setTravelLocation(new Location(new BlockPos(-1200, 70, 3400), NETHER).setFacing(Direction.EAST));
+
+        for (int i = 0; i < companionCount; i++) {
+            companions.add(companion("Companion" + i));
+        }
+    }
+
+    /**
+     * Creates a companion the same way TARDIM loads one from disk, as its constructor needs a player.
+     */
+    private static Companion companion(String username) {
+        JsonObject json = new JsonObject();
+        json.addProperty("username", username);
+        json.addProperty("uuid", UUID.nameUUIDFromBytes(username.getBytes()).toString());
+        return GSON.fromJson(json, Companion.class);
+    }
+
+    @Override
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    @Override
+    public List<Companion> getCompanions() {
+        return companions;
+    }
+
+    @Override
+    public void save() {
+    }
+}
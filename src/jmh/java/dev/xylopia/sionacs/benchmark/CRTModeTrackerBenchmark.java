@@ -0,0 +1,111 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dan200.computercraft.core.terminal.Terminal;
+import dev.xylopia.sionacs.core.apis.CRTModeTracker;
+import dev.xylopia.sionacs.core.apis.CRTTerminal;
+
+/**
+ * Cost of checking a terminal's CRT mode while other threads do the same.
+ * The renderer checks every terminal every frame, while computer threads occasionally toggle it.
+ * Mixins aren't applied here, so terminals are a subclass holding the same field TerminalMixin adds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CRTModeTrackerBenchmark {
+    private static final int TERMINALS = 64;
+
+    @State(Scope.Group)
+    public static class Terminals {
+        final Terminal[] terminals = new Terminal[TERMINALS];
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < TERMINALS; i++) {
+                terminals[i] = new CRTBenchTerminal();
+                if (i % 2 == 0) {
+                    CRTModeTracker.enableCRTMode(terminals[i]);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next() {
+            return index = (index + 1) & (TERMINALS - 1);
+        }
+    }
+
+    /**
+     * A {@link Terminal} with the state TerminalMixin adds in game.
+     */
+    static final class CRTBenchTerminal extends Terminal implements CRTTerminal {
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(CRTBenchTerminal.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile int state = CRTModeTracker.DEFAULT_STATE;
+
+        CRTBenchTerminal() {
+            super(51, 19, true);
+        }
+
+        @Override
+        public int sionacs$getCRTState() {
+            return state;
+        }
+
+        @Override
+        public boolean sionacs$compareAndSetCRTState(int expected, int updated) {
+            return STATE.compareAndSet(this, expected, updated);
+        }
+
+        @Override
+        public int sionacs$getVersion() {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    @Group("readers")
+    @GroupThreads(4)
+    public boolean readOnly(Terminals state, Cursor cursor) {
+        return CRTModeTracker.isCRTModeEnabled(state.terminals[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public boolean mixedRead(Terminals state, Cursor cursor) {
+        return CRTModeTracker.isCRTModeEnabled(state.terminals[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean mixedToggle(Terminals state, Cursor cursor) {
+        return CRTModeTracker.toggleCRTMode(state.terminals[cursor.next()]);
+    }
+}
@@ -0,0 +1,62 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.integration.tardim.TardimSnapshot;
+
+/**
+ * Cost of building the Lua tables returned by getCurrentLocation and getCompanions.
+ * Each invocation captures a fresh snapshot, as happens whenever the TARDIM changes,
+ * so the table is always built rather than served from the snapshot's cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LuaTableBenchmark {
+    @Param({ "0", "4", "16" })
+    public int companionCount;
+
+    private BenchTardimData data;
+    private TardimSnapshot cached;
+    private long version = 0L;
+
+    @Setup
+    public void setup() {
+        data = new BenchTardimData(1, "Owner", companionCount);
+        cached = TardimSnapshot.capture(data, 0L);
+        cached.getCurrentLocationTable();
+    }
+
+    @Benchmark
+    public TardimSnapshot capture() {
+        return TardimSnapshot.capture(data, ++version);
+    }
+
+    @Benchmark
+    public ObjectLuaTable currentLocation() {
+        return TardimSnapshot.capture(data, ++version).getCurrentLocationTable();
+    }
+
+    @Benchmark
+    public ObjectLuaTable companions() {
+        return TardimSnapshot.capture(data, ++version).getCompanionsTable();
+    }
+
+    /**
+     * Repeated reads of an unchanged snapshot, which reuse its table.
+     */
+    @Benchmark
+    public ObjectLuaTable currentLocationCached() {
+        return cached.getCurrentLocationTable();
+    }
+}
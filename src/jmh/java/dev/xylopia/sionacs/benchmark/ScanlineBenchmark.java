@@ -0,0 +1,81 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dev.xylopia.sionacs.core.apis.CRTScanlines;
+
+/**
+ * Cost of generating the CRT scanline overlay for one terminal.
+ * Each line is written as four vertices into a float array, standing in for the vertex buffer
+ * the renderer writes to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScanlineBenchmark {
+    // Glyph size in pixels, as in FixedWidthFontRenderer
+    private static final int FONT_WIDTH = 6;
+    private static final int FONT_HEIGHT = 9;
+    private static final float MARGIN = 2.0f;
+
+    // Computer, pocket computer and the largest monitor, in characters
+    @Param({ "51x19", "26x20", "164x81" })
+    public String size;
+
+    private float width;
+    private float height;
+    private float[] vertices;
+    private VertexSink sink;
+
+    @Setup
+    public void setup() {
+        String[] parts = size.split("x");
+        width = Integer.parseInt(parts[0]) * FONT_WIDTH + MARGIN * 2;
+        height = Integer.parseInt(parts[1]) * FONT_HEIGHT + MARGIN * 2;
+        vertices = new float[((int) height / CRTScanlines.SPACING + 1) * 4 * 3];
+        sink = new VertexSink(vertices);
+    }
+
+    @Benchmark
+    public int emit() {
+        sink.reset();
+        CRTScanlines.emit(sink, 0.0f, 0.0f, width, height, MARGIN, MARGIN);
+        return sink.offset;
+    }
+
+    private static final class VertexSink implements CRTScanlines.Sink {
+        private final float[] vertices;
+        private int offset;
+
+        private VertexSink(float[] vertices) {
+            this.vertices = vertices;
+        }
+
+        private void reset() {
+            offset = 0;
+        }
+
+        @Override
+        public void line(float x1, float y1, float x2, float y2) {
+            vertex(x1, y1);
+            vertex(x1, y2);
+            vertex(x2, y2);
+            vertex(x2, y1);
+        }
+
+        private void vertex(float x, float y) {
+            vertices[offset++] = x;
+            vertices[offset++] = y;
+            vertices[offset++] = 0.003f;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.xylopia.sionacs.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dan200.computercraft.api.lua.IArguments;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.MethodResult;
+import dan200.computercraft.api.lua.ObjectArguments;
+import dev.xylopia.sionacs.integration.computercraft.TardimMethodTable;
+import dev.xylopia.sionacs.integration.computercraft.TardimPeripheral;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+
+/**
+ * Cost of a Lua call through {@link TardimPeripheral#callMethod} for getters served from the snapshot,
+ * compared with invoking the method table directly.
+ *
+ * Metrics are off, so the computer and Lua context are never touched and are passed as null.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TardimDispatchBenchmark {
+    private final IArguments noArgs = new ObjectArguments();
+
+    private TardimPeripheral peripheral;
+    private TardimAPI api;
+    private int getFuel;
+    private int getCurrentLocation;
+    private int calculateFuelForJourney;
+
+    @Setup
+    public void setup() {
+        BenchHost host = new BenchHost(new BenchTardimData(1, "Owner", 4));
+        host.publishSnapshot();
+        peripheral = new TardimPeripheral(host);
+        api = new TardimAPI(host);
+
+        getFuel = TardimMethodTable.indexOf("getFuel");
+        getCurrentLocation = TardimMethodTable.indexOf("getCurrentLocation");
+        calculateFuelForJourney = TardimMethodTable.indexOf("calculateFuelForJourney");
+    }
+
+    @Benchmark
+    public MethodResult callGetFuel() throws LuaException {
+        return peripheral.callMethod(null, null, getFuel, noArgs);
+    }
+
+    @Benchmark
+    public MethodResult callGetCurrentLocation() throws LuaException {
+        return peripheral.callMethod(null, null, getCurrentLocation, noArgs);
+    }
+
+    @Benchmark
+    public MethodResult callCalculateFuelForJourney() throws LuaException {
+        return peripheral.callMethod(null, null, calculateFuelForJourney, noArgs);
+    }
+
+    @Benchmark
+    public Object invokeGetFuel() throws LuaException {
+        return TardimMethodTable.invoke(getFuel, api, noArgs);
+    }
+}
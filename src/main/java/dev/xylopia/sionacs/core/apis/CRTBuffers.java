@@ -0,0 +1,52 @@
+package dev.xylopia.sionacs.core.apis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+
+/**
+ * Buffers for CRT terminals, kept apart from Minecraft's own so that asking for one CRT
+ * render type never ends another's batch. Client only.
+ *
+ * Text and scanlines each have a buffer of their own which stays open across terminals, so all
+ * the CRT terminals in a pass cost one text draw and one overlay draw. Anything else (cached
+ * terminals, which each need their own texture) shares the remaining buffer.
+ *
+ * The buffers are ended whenever Minecraft ends its main buffer source ({@code BufferSourceMixin}),
+ * which is where the terminals' callers flush their own vertices, under the same projection.
+ * Everything here runs on the render thread.
+ */
+public final class CRTBuffers {
+    private static MultiBufferSource.BufferSource buffers;
+
+    private CRTBuffers() {
+    }
+
+    /**
+     * Gets the buffer for a render type, starting a new batch only if it has no buffer of its own.
+     */
+    public static VertexConsumer getBuffer(RenderType type) {
+        if (buffers == null) {
+            // Ended in insertion order: cached terminals, then text, then the scanlines over both
+            Map<RenderType, BufferBuilder> fixed = new LinkedHashMap<>();
+            fixed.put(CRTRenderTypes.CRT_TERMINAL, new BufferBuilder(CRTRenderTypes.CRT_TERMINAL.bufferSize()));
+            fixed.put(CRTRenderTypes.SCANLINE_OVERLAY, new BufferBuilder(CRTRenderTypes.SCANLINE_OVERLAY.bufferSize()));
+            buffers = MultiBufferSource.immediateWithBuffers(fixed, new BufferBuilder(256));
+        }
+        return buffers.getBuffer(type);
+    }
+
+    /**
+     * Draws everything written since the last call.
+     */
+    public static void endBatch() {
+        if (buffers != null) {
+            buffers.endBatch();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.xylopia.sionacs.core.apis;
+
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * Picks how much of the CRT effect a terminal gets, from how far away it is drawn. Client only.
+ *
+ * Terminals drawn in the world get full effects up close, a flat tint at medium range and no
+ * overlay beyond the configured distance, and none at all when they are off screen. Terminals in
+ * a GUI are always drawn in full. The distance comes from the pose the terminal is drawn with,
+ * which is relative to the camera in the world.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+public final class CRTLevelOfDetail {
+    // Baked from the client config, squared so distances never need a square root
+    private static volatile double fullDetailDistanceSqr = 16.0 * 16.0;
+    private static volatile double effectDistanceSqr = 48.0 * 48.0;
+    private static volatile boolean fancy = true;
+
+    private CRTLevelOfDetail() {
+    }
+
+    /**
+     * How much of the CRT effect to draw.
+     */
+    public enum Detail {
+        /** Scanlines. */
+        FULL,
+        /** A flat tint, as dark as the scanlines would be on average. */
+        TINTED,
+        /** No overlay. */
+        NONE
+    }
+
+    /**
+     * Picks the detail for a terminal. Must be called on the render thread.
+     *
+     * @param pose   The pose the terminal is drawn with
+     * @param left   Left edge of the terminal, including margins
+     * @param top    Top edge of the terminal, including margins
+     * @param width  Width including margins
+     * @param height Height including margins
+     */
+    public static Detail select(Matrix4f pose, float left, float top, float width, float height) {
+        // GUIs use an orthographic projection, and are always close enough for full effects
+        Matrix4f projection = RenderSystem.getProjectionMatrix();
+        if (projection.m33() != 0.0f) {
+            return Detail.FULL;
+        }
+
+        Vector4f corner = new Vector4f();
+        if (isOffScreen(projection, pose, corner, left, top, width, height)) {
+            return Detail.NONE;
+        }
+
+        pose.transform(corner.set(left + width / 2, top + height / 2, 0.0f, 1.0f));
+        double distanceSqr = corner.x() * corner.x() + corner.y() * corner.y() + corner.z() * corner.z();
+        if (distanceSqr > effectDistanceSqr) {
+            return Detail.NONE;
+        }
+        return distanceSqr > fullDetailDistanceSqr || !fancy ? Detail.TINTED : Detail.FULL;
+    }
+
+    /**
+     * Checks whether all four corners lie outside the same side of the view.
+     */
+    private static boolean isOffScreen(Matrix4f projection, Matrix4f pose, Vector4f corner, float left, float top, float width, float height) {
+        int outside = 0x3F;
+        for (int i = 0; i < 4; i++) {
+            corner.set(left + ((i & 1) == 0 ? 0 : width), top + ((i & 2) == 0 ? 0 : height), 0.0f, 1.0f);
+            pose.transform(corner);
+            projection.transform(corner);
+
+            float w = corner.w();
+            int sides = 0;
+            if (corner.x() < -w) sides |= 1;
+            if (corner.x() > w) sides |= 2;
+            if (corner.y() < -w) sides |= 4;
+            if (corner.y() > w) sides |= 8;
+            if (corner.z() < -w) sides |= 16;
+            if (corner.z() > w) sides |= 32;
+            outside &= sides;
+        }
+        return outside != 0;
+    }
+
+    @SubscribeEvent
+    public static void onConfigLoad(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == SionaConfig.CLIENT_SPEC) {
+            bakeConfig();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onConfigReload(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == SionaConfig.CLIENT_SPEC) {
+            bakeConfig();
+        }
+    }
+
+    private static void bakeConfig() {
+        double fullDetail = SionaConfig.CLIENT.crtFullDetailDistance.get();
+        double effect = Math.max(fullDetail, SionaConfig.CLIENT.crtEffectDistance.get());
+        fullDetailDistanceSqr = fullDetail * fullDetail;
+        effectDistanceSqr = effect * effect;
+        fancy = SionaConfig.CLIENT.enableFancyRendering.get();
+    }
+}
@@ -1,76 +1,128 @@
 package dev.xylopia.sionacs.core.apis;
 
 import dan200.computercraft.core.terminal.Terminal;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * Tracks which terminals have CRT mode enabled
- * Uses WeakHashMap to allow terminals to be garbage collected when no longer referenced
+ * The state lives on each terminal (see {@link CRTTerminal}), so checking it takes no lock or lookup
+ *
+ * The state is packed into one int:
+ * bit 0 is the enabled flag, bits 8-15 the scanline alpha and bits 16-19 the scanline spacing
  */
 public class CRTModeTracker {
-    
-    // Using WeakHashMap so terminals can be garbage collected when no longer needed
-    private static final Map<Terminal, Boolean> crtEnabledTerminals = 
-            Collections.synchronizedMap(new WeakHashMap<>());
-    
+
+    private static final int ENABLED = 1;
+    private static final int ALPHA_SHIFT = 8;
+    private static final int ALPHA_MASK = 0xFF;
+    private static final int SPACING_SHIFT = 16;
+    private static final int SPACING_MASK = 0xF;
+
+    /**
+     * State of a terminal which has never been changed: disabled, with the default scanlines
+     */
+    public static final int DEFAULT_STATE = (CRTScanlines.ALPHA << ALPHA_SHIFT) | (CRTScanlines.SPACING << SPACING_SHIFT);
+
+    /**
+     * Gets the packed CRT state of a terminal
+     * Read it once and use the accessors below, rather than reading it once per parameter
+     *
+     * @param terminal The terminal to check
+     * @return The packed state, or {@link #DEFAULT_STATE} for a null terminal
+     */
+    public static int getState(Terminal terminal) {
+        if (terminal == null) return DEFAULT_STATE;
+        return ((CRTTerminal) terminal).sionacs$getCRTState();
+    }
+
+    /**
+     * Checks whether a packed state has CRT mode enabled
+     */
+    public static boolean isEnabled(int state) {
+        return (state & ENABLED) != 0;
+    }
+
+    /**
+     * Gets the scanline alpha (0-255) from a packed state
+     */
+    public static int getScanlineAlpha(int state) {
+        return (state >>> ALPHA_SHIFT) & ALPHA_MASK;
+    }
+
+    /**
+     * Gets the scanline spacing in pixels from a packed state
+     */
+    public static int getScanlineSpacing(int state) {
+        return Math.max(1, (state >>> SPACING_SHIFT) & SPACING_MASK);
+    }
+
     /**
      * Check if CRT mode is enabled for a terminal
-     * 
+     *
      * @param terminal The terminal to check
      * @return true if CRT mode is enabled, false otherwise
      */
     public static boolean isCRTModeEnabled(Terminal terminal) {
-        if (terminal == null) return false;
-        return crtEnabledTerminals.getOrDefault(terminal, false);
+        return isEnabled(getState(terminal));
     }
-    
+
     /**
      * Enable CRT mode for a terminal
-     * 
+     *
      * @param terminal The terminal to enable CRT mode for
      */
     public static void enableCRTMode(Terminal terminal) {
-        if (terminal != null) {
-            crtEnabledTerminals.put(terminal, true);
-        }
+        setEnabled(terminal, true);
     }
-    
+
     /**
      * Disable CRT mode for a terminal
-     * 
+     *
      * @param terminal The terminal to disable CRT mode for
      */
     public static void disableCRTMode(Terminal terminal) {
-        if (terminal != null) {
-            crtEnabledTerminals.put(terminal, false);
-        }
+        setEnabled(terminal, false);
     }
-    
+
     /**
      * Toggle CRT mode for a terminal
-     * 
+     *
      * @param terminal The terminal to toggle CRT mode for
      * @return The new state (true = enabled, false = disabled)
      */
     public static boolean toggleCRTMode(Terminal terminal) {
         if (terminal == null) return false;
-        
-        boolean newState = !isCRTModeEnabled(terminal);
-        crtEnabledTerminals.put(terminal, newState);
-        return newState;
+
+        CRTTerminal crt = (CRTTerminal) terminal;
+        int state;
+        do {
+            state = crt.sionacs$getCRTState();
+        } while (!crt.sionacs$compareAndSetCRTState(state, state ^ ENABLED));
+        return !isEnabled(state);
     }
-    
+
     /**
-     * Clear CRT mode data for a terminal when it's no longer needed
-     * This is optional since we're using WeakHashMap, but can help with immediate cleanup
-     * 
+     * Reset a terminal's CRT state to the default
+     *
      * @param terminal The terminal to clear
      */
     public static void clearTerminal(Terminal terminal) {
-        if (terminal != null) {
-            crtEnabledTerminals.remove(terminal);
-        }
+        if (terminal == null) return;
+
+        CRTTerminal crt = (CRTTerminal) terminal;
+        int state;
+        do {
+            state = crt.sionacs$getCRTState();
+        } while (!crt.sionacs$compareAndSetCRTState(state, DEFAULT_STATE));
+    }
+
+    private static void setEnabled(Terminal terminal, boolean enabled) {
+        if (terminal == null) return;
+
+        // Only the flag changes, so the effect parameters survive a concurrent update
+        CRTTerminal crt = (CRTTerminal) terminal;
+        int state;
+        do {
+            state = crt.sionacs$getCRTState();
+        } while (!crt.sionacs$compareAndSetCRTState(state, enabled ? state | ENABLED : state & ~ENABLED));
     }
 }
@@ -0,0 +1,73 @@
+package dev.xylopia.sionacs.core.apis;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormat;
+
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Render types for CRT terminals. Client only.
+ * Extends {@link RenderType} only to reach its protected render state shards.
+ */
+public final class CRTRenderTypes extends RenderType {
+    // Font atlas used by terminals in CRT mode
+    @SuppressWarnings("removal")
+    public static final ResourceLocation CRT_FONT = new ResourceLocation(Constants.MOD_ID, "textures/gui/crt_term_font.png");
+
+    /**
+     * Text in CRT terminals. Built the same way as ComputerCraft's own terminal render type,
+     * with the CRT font. Drawn through {@link CRTBuffers}, so CRT terminals batch together
+     * and never rebind textures per row.
+     */
+    public static final RenderType CRT_TERMINAL = RenderType.text(CRT_FONT);
+
+    // One scanline period: an opaque top row and nine clear rows, repeated down the terminal
+    @SuppressWarnings("removal")
+    public static final ResourceLocation SCANLINES = new ResourceLocation(Constants.MOD_ID, "textures/gui/crt_scanlines.png");
+
+    /**
+     * The scanline overlay: one quad per terminal, tinted by its vertex colour.
+     * Doesn't write depth, so it never hides the text beneath it.
+     */
+    public static final RenderType SCANLINE_OVERLAY = create(
+        Constants.MOD_ID + ":crt_scanlines",
+        DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP, VertexFormat.Mode.QUADS, 256,
+        false, false,
+        CompositeState.builder()
+            .setShaderState(RENDERTYPE_TEXT_SHADER)
+            .setTextureState(new TextureStateShard(SCANLINES, false, false))
+            .setTransparencyState(TRANSLUCENT_TRANSPARENCY)
+            .setLightmapState(LIGHTMAP)
+            .setCullState(NO_CULL)
+            .setWriteMaskState(COLOR_WRITE)
+            .createCompositeState(false)
+    );
+
+    /**
+     * A terminal drawn from a render target it was cached in (see {@link CRTTerminalCache}).
+     * Each target needs its own render type, as the texture is bound by the type.
+     */
+    public static RenderType cachedTerminal(RenderTarget target) {
+        return create(
+            Constants.MOD_ID + ":crt_cached_terminal",
+            DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP, VertexFormat.Mode.QUADS, 256,
+            false, false,
+            CompositeState.builder()
+                .setShaderState(RENDERTYPE_TEXT_SHADER)
+                .setTextureState(new EmptyTextureStateShard(() -> RenderSystem.setShaderTexture(0, target.getColorTextureId()), () -> {}))
+                .setTransparencyState(TRANSLUCENT_TRANSPARENCY)
+                .setLightmapState(LIGHTMAP)
+                .createCompositeState(false)
+        );
+    }
+
+    private CRTRenderTypes(String name, VertexFormat format, VertexFormat.Mode mode, int bufferSize,
+                           boolean affectsCrumbling, boolean sortOnUpload, Runnable setup, Runnable clear) {
+        super(name, format, mode, bufferSize, affectsCrumbling, sortOnUpload, setup, clear);
+        throw new UnsupportedOperationException("Holder for render types");
+    }
+}
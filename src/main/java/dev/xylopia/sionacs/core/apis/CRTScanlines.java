@@ -0,0 +1,114 @@
+package dev.xylopia.sionacs.core.apis;
+
+import net.minecraft.util.FastColor.ARGB32;
+
+/**
+ * Geometry for the CRT scanline overlay, kept apart from the renderer mixin
+ * so it can be reused and benchmarked without a render context.
+ *
+ * The renderer draws the overlay as a single quad with a repeating scanline texture
+ * ({@link #emitTiled}); {@link #emit} gives the equivalent individual lines.
+ */
+public final class CRTScanlines {
+    // Default scanline opacity, out of 255
+    public static final int ALPHA = 60;
+
+    // Semi-transparent black: Alpha=60, R=0, G=0, B=0
+    public static final int COLOUR = colour(ALPHA);
+
+    // Pixels between the tops of two scanlines
+    public static final int SPACING = 2;
+
+    // Thickness of each scanline, in pixels
+    public static final float THICKNESS = 0.2f;
+
+    // Fraction of the tiled scanline texture which is dark
+    public static final float TILE_COVERAGE = 0.1f;
+
+    // Scanlines stop slightly short of the right edge
+    private static final float RIGHT_INSET = 1.8f;
+
+    private CRTScanlines() {
+    }
+
+    /**
+     * Gets the colour of scanlines with the given opacity.
+     */
+    public static int colour(int alpha) {
+        return ARGB32.color(alpha, 0, 0, 0);
+    }
+
+    /**
+     * Receives one quad per scanline.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void line(float x1, float y1, float x2, float y2);
+    }
+
+    /**
+     * Receives the single quad covering a terminal's scanlines.
+     */
+    @FunctionalInterface
+    public interface TiledSink {
+        /**
+         * @param repeats How many times the scanline pattern repeats from top to bottom
+         */
+        void quad(float x1, float y1, float x2, float y2, float repeats);
+    }
+
+    /**
+     * Emits one quad covering a terminal, including its margins, to be drawn with a scanline
+     * texture repeating every {@code spacing} pixels.
+     *
+     * @param sink       Where to send the quad
+     * @param x          Left edge of the terminal text
+     * @param y          Top edge of the terminal text
+     * @param width      Width including margins
+     * @param height     Height including margins
+     * @param topMargin  Size of the top margin
+     * @param leftMargin Size of the left margin
+     * @param spacing    Pixels between the tops of two scanlines
+     */
+    public static void emitTiled(TiledSink sink, float x, float y, float width, float height, float topMargin, float leftMargin, int spacing) {
+        float left = x - leftMargin;
+        float right = x + width - RIGHT_INSET;
+        float top = y - topMargin;
+        sink.quad(left, top, right, top + height, height / spacing);
+    }
+
+    /**
+     * Emits the scanlines covering a terminal, including its margins.
+     *
+     * @param sink          Where to send each line
+     * @param x             Left edge of the terminal text
+     * @param y             Top edge of the terminal text
+     * @param width         Width including margins
+     * @param height        Height including margins
+     * @param topMargin     Size of the top margin
+     * @param leftMargin    Size of the left margin
+     * @return The number of lines emitted
+     */
+    public static int emit(Sink sink, float x, float y, float width, float height, float topMargin, float leftMargin) {
+        return emit(sink, x, y, width, height, topMargin, leftMargin, SPACING);
+    }
+
+    /**
+     * Emits the scanlines covering a terminal, with the given spacing.
+     *
+     * @param spacing Pixels between the tops of two scanlines
+     * @return The number of lines emitted
+     * @see #emit(Sink, float, float, float, float, float, float)
+     */
+    public static int emit(Sink sink, float x, float y, float width, float height, float topMargin, float leftMargin, int spacing) {
+        int lines = 0;
+        float left = x - leftMargin;
+        float right = x + width - RIGHT_INSET;
+        for (int i = 0; i < height; i += spacing) {
+            float lineY = y + i - topMargin;
+            sink.line(left, lineY, right, lineY + THICKNESS);
+            lines++;
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.xylopia.sionacs.core.apis;
+
+/**
+ * CRT state stored on a terminal itself, added to ComputerCraft's {@code Terminal} by
+ * {@code TerminalMixin}. Use {@link CRTModeTracker} rather than calling these directly.
+ *
+ * The state is a single packed int, laid out as described in {@link CRTModeTracker}.
+ */
+public interface CRTTerminal {
+    /**
+     * Reads the packed CRT state.
+     */
+    int sionacs$getCRTState();
+
+    /**
+     * Atomically replaces the packed CRT state if it still holds the expected value.
+     *
+     * @return Whether the state was replaced
+     */
+    boolean sionacs$compareAndSetCRTState(int expected, int updated);
+
+    /**
+     * Gets a number which changes whenever the terminal's contents, palette or size change.
+     * Only meaningful when compared with an earlier value.
+     */
+    int sionacs$getVersion();
+}
@@ -0,0 +1,326 @@
+package dev.xylopia.sionacs.core.apis;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL30;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexSorting;
+
+import dan200.computercraft.client.FrameInfo;
+import dan200.computercraft.client.render.text.FixedWidthFontRenderer;
+import dan200.computercraft.client.render.text.FixedWidthFontRenderer.QuadEmitter;
+import dan200.computercraft.core.terminal.Terminal;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.util.Mth;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * Caches the text of CRT terminals in render targets, so a terminal which hasn't changed is
+ * drawn as one textured quad rather than two quads per character. Client only.
+ *
+ * A terminal is redrawn into its target when its contents, palette or size change (tracked by
+ * {@link CRTTerminal#sionacs$getVersion()}), when its margins change, or when its cursor blinks.
+ * Text is cached at one texel per font pixel, which loses nothing for the pixel font. The
+ * scanline overlay isn't cached, so it still follows {@link CRTLevelOfDetail}. Each target is a
+ * texture of its own, so every cached terminal on screen costs one draw call.
+ *
+ * Targets are freed least recently drawn first once the configured memory is used up, and
+ * after going undrawn for {@link #IDLE_TICKS} ticks. Everything here runs on the render thread.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID, value = Dist.CLIENT)
+public final class CRTTerminalCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":CRTTerminalCache");
+
+    // Targets not drawn for this long are freed
+    public static final int IDLE_TICKS = 600;
+
+    // How often idle targets are looked for
+    private static final int SWEEP_INTERVAL = 20;
+
+    // A colour and a depth attachment
+    private static final int BYTES_PER_PIXEL = 8;
+
+    // Least recently drawn first
+    private static final LinkedHashMap<Terminal, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Baked from the client config
+    private static volatile long budgetBytes = 64L << 20;
+
+    private static MultiBufferSource.BufferSource bakeBuffers;
+    private static long usedBytes;
+    private static int ticks;
+    private static boolean baking;
+
+    // Last framebuffer bound for drawing through GlStateManager, or -1 before the first
+    private static int boundFramebuffer = -1;
+
+    private CRTTerminalCache() {
+    }
+
+    private static final class Entry {
+        final TextureTarget target;
+        final RenderType renderType;
+        long bytes;
+        int lastUsed;
+
+        // What the target was last drawn from
+        boolean valid;
+        int version;
+        boolean cursorShown;
+        float topMargin;
+        float bottomMargin;
+        float leftMargin;
+        float rightMargin;
+
+        Entry(TextureTarget target) {
+            this.target = target;
+            this.renderType = CRTRenderTypes.cachedTerminal(target);
+        }
+
+        boolean matches(int version, boolean cursorShown, float top, float bottom, float left, float right) {
+            return valid && this.version == version && this.cursorShown == cursorShown
+                && topMargin == top && bottomMargin == bottom && leftMargin == left && rightMargin == right;
+        }
+    }
+
+    /**
+     * Whether a terminal is being drawn into the cache right now.
+     * The renderer mixin draws terminals plainly while this is set.
+     */
+    public static boolean isBaking() {
+        return baking;
+    }
+
+    /**
+     * Records a framebuffer being bound. Called by {@code GlStateManagerMixin}, as asking GL for the
+     * binding on every draw would stall until the driver caught up.
+     */
+    public static void onBindFramebuffer(int target, int framebuffer) {
+        if (target == GL30.GL_FRAMEBUFFER || target == GL30.GL_DRAW_FRAMEBUFFER) {
+            boundFramebuffer = framebuffer;
+        }
+    }
+
+    /**
+     * Draws a terminal from the cache, redrawing its cached copy first if the terminal changed.
+     * Takes the same arguments as {@link FixedWidthFontRenderer#drawTerminal}.
+     *
+     * @return Whether the terminal was drawn; if not, it should be drawn normally
+     */
+    public static boolean draw(Matrix4f pose, float x, float y, Terminal terminal,
+                               float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize) {
+        long budget = budgetBytes;
+        if (budget <= 0 || baking) {
+            return false;
+        }
+
+        // Only cache while drawing to the main target, as that's the one rebound after baking
+        RenderTarget main = Minecraft.getInstance().getMainRenderTarget();
+        if (boundFramebuffer != main.frameBufferId) {
+            return false;
+        }
+
+        float width = terminal.getWidth() * FixedWidthFontRenderer.FONT_WIDTH + leftMarginSize + rightMarginSize;
+        float height = terminal.getHeight() * FixedWidthFontRenderer.FONT_HEIGHT + topMarginSize + bottomMarginSize;
+        int pixelWidth = Mth.ceil(width);
+        int pixelHeight = Mth.ceil(height);
+        long bytes = (long) pixelWidth * pixelHeight * BYTES_PER_PIXEL;
+        if (pixelWidth <= 0 || pixelHeight <= 0 || bytes > budget) {
+            return false;
+        }
+
+        Entry entry = ENTRIES.get(terminal);
+        if (entry == null) {
+            TextureTarget target = new TextureTarget(pixelWidth, pixelHeight, true, Minecraft.ON_OSX);
+            target.setClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+            entry = new Entry(target);
+            entry.bytes = bytes;
+            usedBytes += bytes;
+            ENTRIES.put(terminal, entry);
+        } else if (entry.target.width != pixelWidth || entry.target.height != pixelHeight) {
+            entry.target.resize(pixelWidth, pixelHeight, Minecraft.ON_OSX);
+            usedBytes += bytes - entry.bytes;
+            entry.bytes = bytes;
+            entry.valid = false;
+        }
+        entry.lastUsed = ticks;
+        trim(budget);
+
+        // Read before drawing, so a change made while baking is picked up next frame
+        int version = ((CRTTerminal) terminal).sionacs$getVersion();
+        // The cursor blinks on ComputerCraft's frame timer, which never marks the terminal changed
+        boolean cursorShown = terminal.getCursorBlink() && FrameInfo.getGlobalCursorBlink();
+        if (!entry.matches(version, cursorShown, topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize)) {
+            bake(entry.target, terminal, topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize);
+            entry.valid = true;
+            entry.version = version;
+            entry.cursorShown = cursorShown;
+            entry.topMargin = topMarginSize;
+            entry.bottomMargin = bottomMarginSize;
+            entry.leftMargin = leftMarginSize;
+            entry.rightMargin = rightMarginSize;
+        }
+
+        // The target is drawn bottom up, so the top of the terminal is at v = 1
+        float x1 = x - leftMarginSize;
+        float y1 = y - topMarginSize;
+        float x2 = x1 + width;
+        float y2 = y1 + height;
+        float u = width / entry.target.width;
+        float v = 1.0f - height / entry.target.height;
+
+        VertexConsumer consumer = Minecraft.getInstance().renderBuffers().bufferSource().getBuffer(entry.renderType);
+        consumer.vertex(pose, x1, y1, 0).color(255, 255, 255, 255).uv(0, 1).uv2(LightTexture.FULL_BRIGHT).endVertex();
+        consumer.vertex(pose, x1, y2, 0).color(255, 255, 255, 255).uv(0, v).uv2(LightTexture.FULL_BRIGHT).endVertex();
+        consumer.vertex(pose, x2, y2, 0).color(255, 255, 255, 255).uv(u, v).uv2(LightTexture.FULL_BRIGHT).endVertex();
+        consumer.vertex(pose, x2, y1, 0).color(255, 255, 255, 255).uv(u, 1).uv2(LightTexture.FULL_BRIGHT).endVertex();
+        return true;
+    }
+
+    /**
+     * Draws a terminal into its target, with the text's top left corner at one margin in from the corner.
+     */
+    private static void bake(TextureTarget target, Terminal terminal,
+                             float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize) {
+        if (bakeBuffers == null) {
+            bakeBuffers = MultiBufferSource.immediate(new BufferBuilder(256));
+        }
+
+        Matrix4f projection = RenderSystem.getProjectionMatrix();
+        VertexSorting sorting = RenderSystem.getVertexSorting();
+        float fogStart = RenderSystem.getShaderFogStart();
+        PoseStack modelView = RenderSystem.getModelViewStack();
+
+        target.clear(Minecraft.ON_OSX);
+        target.bindWrite(true);
+        RenderSystem.setProjectionMatrix(
+            new Matrix4f().setOrtho(0.0f, target.width, target.height, 0.0f, -1000.0f, 1000.0f),
+            VertexSorting.ORTHOGRAPHIC_Z
+        );
+        modelView.pushPose();
+        modelView.setIdentity();
+        RenderSystem.applyModelViewMatrix();
+        // Fog depends on where the terminal ends up, so it can't be baked in
+        RenderSystem.setShaderFogStart(Float.MAX_VALUE);
+
+        baking = true;
+        try {
+            QuadEmitter emitter = new QuadEmitter(new Matrix4f(), bakeBuffers.getBuffer(CRTRenderTypes.CRT_TERMINAL));
+            FixedWidthFontRenderer.drawTerminal(emitter, leftMarginSize, topMarginSize, terminal,
+                topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize);
+            bakeBuffers.endBatch();
+        } finally {
+            baking = false;
+            RenderSystem.setShaderFogStart(fogStart);
+            modelView.popPose();
+            RenderSystem.applyModelViewMatrix();
+            RenderSystem.setProjectionMatrix(projection, sorting);
+            Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+        }
+    }
+
+    /**
+     * Frees the least recently drawn targets until the cache fits, always keeping the newest.
+     */
+    private static void trim(long budget) {
+        Iterator<Entry> iterator = ENTRIES.values().iterator();
+        while (usedBytes > budget && ENTRIES.size() > 1) {
+            free(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static void free(Entry entry) {
+        usedBytes -= entry.bytes;
+        entry.target.destroyBuffers();
+    }
+
+    private static void clear() {
+        int count = ENTRIES.size();
+        ENTRIES.values().forEach(CRTTerminalCache::free);
+        ENTRIES.clear();
+        if (count > 0) {
+            LOGGER.debug("Freed {} cached CRT terminals", count);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+
+        ticks++;
+        if (ticks % SWEEP_INTERVAL != 0 || ENTRIES.isEmpty()) {
+            return;
+        }
+
+        if (budgetBytes <= 0) {
+            clear();
+            return;
+        }
+
+        Iterator<Entry> iterator = ENTRIES.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (ticks - entry.lastUsed > IDLE_TICKS) {
+                free(entry);
+                iterator.remove();
+            }
+        }
+        trim(budgetBytes);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        clear();
+    }
+
+    /**
+     * Bakes the memory budget whenever the client config is loaded.
+     */
+    @Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+    public static final class ConfigEvents {
+        private ConfigEvents() {
+        }
+
+        @SubscribeEvent
+        public static void onConfigLoad(ModConfigEvent.Loading event) {
+            if (event.getConfig().getSpec() == SionaConfig.CLIENT_SPEC) {
+                bakeConfig();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onConfigReload(ModConfigEvent.Reloading event) {
+            if (event.getConfig().getSpec() == SionaConfig.CLIENT_SPEC) {
+                bakeConfig();
+            }
+        }
+    }
+
+    // Only sets the budget: targets can only be freed on the render thread, on the next tick
+    private static void bakeConfig() {
+        budgetBytes = (long) SionaConfig.CLIENT.crtCacheMegabytes.get() << 20;
+    }
+}
@@ -0,0 +1,423 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import dan200.computercraft.api.lua.ILuaCallback;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.LuaTask;
+import dan200.computercraft.api.lua.MethodResult;
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+import dan200.computercraft.api.peripheral.NotAttachedException;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the TARDIM peripheral's main-thread calls, sharing the server thread fairly between computers.
+ *
+ * Each computer gets a budget of main-thread time per tick, scaled by its weight, and calls are run
+ * in deficit round robin order: every tick each waiting computer's credit grows by its budget, and
+ * it runs calls until the credit is spent. A call is never cut short, so one that overruns leaves
+ * the computer in debt, and its next calls wait until the debt has been paid off, which idle ticks
+ * count towards too. A looping script making expensive calls is therefore slowed down rather than
+ * taking the whole tick. A global budget caps the time spent across all computers; computers which
+ * miss out go first next tick. While the server is behind, {@link TardimGovernor} halves the
+ * budgets and holds back calls of expensive tiers, rejecting them if the server doesn't recover in
+ * time. Held calls are set aside, so a computer's cheaper calls queued behind them still run.
+ *
+ * Calls are submitted from computer threads, which wait for a {@code tardim_task} event carrying
+ * the result, in the same way as ComputerCraft's own main-thread tasks.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class TardimCallScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimCallScheduler");
+
+    public static final String EVENT = "tardim_task";
+
+    private static final int TOP_COMPUTERS = 5;
+
+    // How often lanes left idle in debt are checked for having paid it off
+    private static final int SWEEP_TICKS = 100;
+
+    // Baked from the config, so reading them costs nothing on the server thread
+    private static volatile long tickBudgetNanos = 10_000_000L;
+    private static volatile long computerBudgetNanos = 2_000_000L;
+    private static volatile Map<Integer, Integer> weights = Map.of();
+
+    private static final AtomicLong nextId = new AtomicLong();
+    private static final Queue<Call> incoming = new ConcurrentLinkedQueue<>();
+
+    // Only touched on the server thread
+    private static long tick = 0L;
+    private static final Map<Integer, Lane> lanes = new HashMap<>();
+    private static final Deque<Lane> waiting = new ArrayDeque<>();
+
+    // Read from any thread by the stats
+    private static final Map<Integer, Throttling> throttling = new ConcurrentHashMap<>();
+    private static final LongAdder deferredCalls = new LongAdder();
+
+    private TardimCallScheduler() {
+    }
+
+    /**
+     * Queues a call to run on the server thread. Called from computer threads.
+     *
+     * @param computer The calling computer, which is sent the result
+     * @param cost     The call's cost tier
+     * @param task     The call
+     * @return A result which waits for the call to complete
+     */
+    public static MethodResult submit(IComputerAccess computer, TardimCost.Tier cost, LuaTask task) {
+        long id = nextId.incrementAndGet();
+        incoming.add(new Call(id, computer, cost, task));
+        return new Callback(id).waitForResult();
+    }
+
+    /**
+     * Runs the calls which fit in this tick's budgets. Must be called once per tick on the server thread.
+     */
+    public static void runTick() {
+        long tickStart = System.nanoTime();
+        long tickBudget = tickBudgetNanos;
+        long computerBudget = computerBudgetNanos / TardimGovernor.getBudgetDivisor();
+        Map<Integer, Integer> weights = TardimCallScheduler.weights;
+        tick++;
+
+        Call call;
+        while ((call = incoming.poll()) != null) {
+            call.submitted = tick;
+            int computerId = call.computer.getID();
+            Lane lane = lanes.computeIfAbsent(computerId, Lane::new);
+            lane.calls.addLast(call);
+            if (!lane.waiting) {
+                lane.waiting = true;
+                // Ticks spent idle pay off debt, as they would have had the computer been waiting
+                if (lane.credit < 0) {
+                    long quantum = computerBudget * weights.getOrDefault(computerId, 1);
+                    lane.credit = Math.min(0L, lane.credit + idleTicks(lane) * quantum);
+                }
+                waiting.addLast(lane);
+            }
+        }
+
+        // Visit each waiting computer at most once, in round robin order
+        int visits = waiting.size();
+        for (int i = 0; i < visits && System.nanoTime() - tickStart < tickBudget; i++) {
+            Lane lane = waiting.pollFirst();
+            long quantum = computerBudget * weights.getOrDefault(lane.computerId, 1);
+
+            // Credit doesn't build up beyond one tick's budget, but debt is carried over
+            lane.credit = Math.min(lane.credit + quantum, quantum);
+            expireHeld(lane);
+            while (lane.credit > 0 && (call = nextCall(lane)) != null) {
+                long start = System.nanoTime();
+                run(call);
+                lane.credit -= System.nanoTime() - start;
+
+                if (System.nanoTime() - tickStart >= tickBudget) {
+                    break;
+                }
+            }
+
+            if (lane.calls.isEmpty() && lane.held.isEmpty()) {
+                // Only debt is kept, so a lane with none left is forgotten until the computer calls again
+                lane.waiting = false;
+                lane.credit = Math.min(lane.credit, 0L);
+                lane.idleSince = tick;
+                if (lane.credit == 0L) {
+                    lanes.remove(lane.computerId);
+                }
+            } else {
+                waiting.addLast(lane);
+            }
+        }
+
+        if (tick % SWEEP_TICKS == 0) {
+            lanes.values().removeIf(lane -> !lane.waiting
+                && lane.credit + idleTicks(lane) * computerBudget * weights.getOrDefault(lane.computerId, 1) >= 0L);
+        }
+
+        // Whoever still has calls which could have run has been throttled this tick;
+        // calls held back by the governor are counted by the governor instead
+        for (Lane lane : waiting) {
+            int throttled = 0;
+            for (Call waitingCall : lane.calls) {
+                if (!TardimGovernor.isDeferred(waitingCall.cost)) {
+                    throttled++;
+                }
+            }
+            if (throttled == 0) {
+                continue;
+            }
+
+            Throttling stats = throttling.computeIfAbsent(lane.computerId, id -> new Throttling());
+            stats.ticks.increment();
+            stats.deferred.add(throttled);
+            deferredCalls.add(throttled);
+        }
+    }
+
+    /**
+     * Gets the number of whole ticks an idle lane has gone without being visited.
+     */
+    private static long idleTicks(Lane lane) {
+        return Math.max(0L, tick - lane.idleSince - 1);
+    }
+
+    /**
+     * Gives up on held calls which the governor has kept back for too long.
+     */
+    private static void expireHeld(Lane lane) {
+        long maxDeferTicks = TardimGovernor.getMaxDeferTicks();
+        Iterator<Call> iterator = lane.held.iterator();
+        while (iterator.hasNext()) {
+            Call call = iterator.next();
+            if (TardimGovernor.isDeferred(call.cost) && tick - call.submitted > maxDeferTicks) {
+                // The server hasn't recovered in time, so give up on this call
+                iterator.remove();
+                TardimGovernor.recordExpired();
+                complete(call, new Object[] { call.id, false, TardimGovernor.SERVER_BUSY });
+            }
+        }
+    }
+
+    /**
+     * Takes a computer's next call which the governor allows to run, or null if there is none.
+     * Calls the governor holds back are set aside, so they don't hold up cheaper calls behind them.
+     */
+    @Nullable
+    private static Call nextCall(Lane lane) {
+        // Released calls go first, as they were submitted before anything still queued
+        Iterator<Call> iterator = lane.held.iterator();
+        while (iterator.hasNext()) {
+            Call call = iterator.next();
+            if (!TardimGovernor.isDeferred(call.cost)) {
+                iterator.remove();
+                return call;
+            }
+        }
+
+        Call call;
+        while ((call = lane.calls.pollFirst()) != null) {
+            if (!TardimGovernor.isDeferred(call.cost)) {
+                return call;
+            }
+            lane.held.addLast(call);
+        }
+        return null;
+    }
+
+    private static void run(Call call) {
+        Object[] event;
+        try {
+            Object[] results = call.task.execute();
+            int count = results == null ? 0 : results.length;
+            event = new Object[2 + count];
+            event[1] = true;
+            if (count > 0) {
+                System.arraycopy(results, 0, event, 2, count);
+            }
+        } catch (LuaException e) {
+            event = new Object[] { null, false, e.getMessage() };
+        } catch (RuntimeException e) {
+            LOGGER.error("Error running TARDIM call for computer {}", call.computer.getID(), e);
+            event = new Object[] { null, false, "Java Exception Thrown: " + e };
+        }
+        event[0] = call.id;
+        complete(call, event);
+    }
+
+    private static void complete(Call call, Object[] event) {
+        try {
+            call.computer.queueEvent(EVENT, event);
+        } catch (NotAttachedException e) {
+            // The computer was detached while the call was waiting; nobody is left to tell
+        }
+    }
+
+    /**
+     * Gets the number of calls which have had to wait for a later tick, counted once per tick waited.
+     * Only calls kept waiting by the budgets count, not those held back by the governor.
+     */
+    public static long getDeferredCalls() {
+        return deferredCalls.sum();
+    }
+
+    /**
+     * Gets the computers which have been throttled in the most ticks since the last reset.
+     * @return Pairs of computer ID and the number of ticks throttled, most first
+     */
+    public static List<Map.Entry<Integer, Long>> getTopThrottled() {
+        List<Map.Entry<Integer, Long>> computers = new ArrayList<>(throttling.size());
+        throttling.forEach((id, stats) -> computers.add(Map.entry(id, stats.ticks.sum())));
+        computers.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+        return computers.size() > TOP_COMPUTERS ? computers.subList(0, TOP_COMPUTERS) : computers;
+    }
+
+    /**
+     * Clears the throttling statistics.
+     */
+    public static void resetStats() {
+        throttling.clear();
+        deferredCalls.reset();
+    }
+
+    /**
+     * Converts the throttling statistics into a Lua table.
+     */
+    public static ObjectLuaTable toLuaTable() {
+        Map<Integer, Object> computers = new HashMap<>();
+        List<Map.Entry<Integer, Long>> top = getTopThrottled();
+        for (int i = 0; i < top.size(); i++) {
+            Throttling stats = throttling.get(top.get(i).getKey());
+            computers.put(i + 1, new ObjectLuaTable(Map.of(
+                "id", top.get(i).getKey(),
+                "ticks", top.get(i).getValue(),
+                "deferred", stats == null ? 0L : stats.deferred.sum()
+            )));
+        }
+
+        return new ObjectLuaTable(Map.of(
+            "deferredCalls", getDeferredCalls(),
+            "topThrottled", new ObjectLuaTable(computers)
+        ));
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            runTick();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        if (!incoming.isEmpty() || !waiting.isEmpty()) {
+            LOGGER.debug("Dropping TARDIM calls from {} computers", waiting.size());
+        }
+        incoming.clear();
+        lanes.clear();
+        waiting.clear();
+        tick = 0L;
+    }
+
+    private static void bakeConfig() {
+        tickBudgetNanos = SionaConfig.COMMON.tardimTickBudgetMicros.get() * 1_000L;
+        computerBudgetNanos = SionaConfig.COMMON.tardimComputerBudgetMicros.get() * 1_000L;
+
+        // Entries are "computerId=weight"
+        Map<Integer, Integer> parsed = new HashMap<>();
+        for (String entry : SionaConfig.COMMON.tardimComputerWeights.get()) {
+            String[] parts = entry.split("=");
+            try {
+                parsed.put(Integer.parseInt(parts[0].trim()), Math.max(1, Integer.parseInt(parts[1].trim())));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                LOGGER.warn("Ignoring invalid computer weight \"{}\", expected computerId=weight", entry);
+            }
+        }
+        weights = Map.copyOf(parsed);
+    }
+
+    /**
+     * Bakes the budgets whenever the common config is loaded.
+     */
+    @Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    public static final class ConfigEvents {
+        private ConfigEvents() {
+        }
+
+        @SubscribeEvent
+        public static void onConfigLoad(ModConfigEvent.Loading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                bakeConfig();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onConfigReload(ModConfigEvent.Reloading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                bakeConfig();
+            }
+        }
+    }
+
+    private static final class Call {
+        private final long id;
+        private final IComputerAccess computer;
+        private final TardimCost.Tier cost;
+        private final LuaTask task;
+        // The scheduler tick the call was first seen on
+        private long submitted;
+
+        private Call(long id, IComputerAccess computer, TardimCost.Tier cost, LuaTask task) {
+            this.id = id;
+            this.computer = computer;
+            this.cost = cost;
+            this.task = task;
+        }
+    }
+
+    /**
+     * The calls waiting for one computer.
+     */
+    private static final class Lane {
+        private final int computerId;
+        private final Deque<Call> calls = new ArrayDeque<>();
+        // Calls the governor is holding back, in the order they were submitted
+        private final Deque<Call> held = new ArrayDeque<>();
+        private long credit = 0L;
+        private boolean waiting = false;
+        // The tick the lane last ran out of calls on
+        private long idleSince = 0L;
+
+        private Lane(int computerId) {
+            this.computerId = computerId;
+        }
+    }
+
+    private static final class Throttling {
+        private final LongAdder ticks = new LongAdder();
+        private final LongAdder deferred = new LongAdder();
+    }
+
+    /**
+     * Waits for the {@code tardim_task} event of one call, ignoring those of others.
+     */
+    private record Callback(long id) implements ILuaCallback {
+        private MethodResult waitForResult() {
+            return MethodResult.pullEvent(EVENT, this);
+        }
+
+        @Override
+        public MethodResult resume(Object[] args) throws LuaException {
+            // args is the event: name, ID, success, then the results or the error message
+            if (args.length < 3 || !(args[1] instanceof Number number) || number.longValue() != id) {
+                return waitForResult();
+            }
+            if (Boolean.TRUE.equals(args[2])) {
+                return MethodResult.of(Arrays.copyOfRange(args, 3, args.length));
+            }
+            throw new LuaException(args.length > 3 && args[3] instanceof String message ? message : "Call failed");
+        }
+    }
+}
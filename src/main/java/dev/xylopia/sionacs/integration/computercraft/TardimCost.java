@@ -0,0 +1,25 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks how much server time a TARDIM Lua method can cost, so {@link TardimGovernor} knows what
+ * to hold back when the server is struggling. Methods without this annotation are {@link Tier#CHEAP}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TardimCost {
+    Tier value();
+
+    enum Tier {
+        /** Reads and small changes to TARDIM data. Always allowed. */
+        CHEAP,
+        /** Changes to the world or to many TARDIMs at once. */
+        MODERATE,
+        /** Searches of the world, such as biome searches and landing. */
+        EXPENSIVE
+    }
+}
@@ -0,0 +1,244 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds back expensive TARDIM calls while the server is behind.
+ *
+ * The governor tracks the average tick time over the last second. Once it passes the strained
+ * threshold, {@link TardimCost.Tier#EXPENSIVE} calls are deferred until the server recovers, and
+ * every computer's main-thread budget is halved. Past the overloaded threshold, expensive calls are
+ * rejected with {@link #SERVER_BUSY}, which scripts can retry later, and moderate calls are
+ * deferred as well. Cheap calls always run. A state is only left once the tick time has dropped
+ * a little below its threshold, so the governor doesn't flap around the limit.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class TardimGovernor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimGovernor");
+
+    /**
+     * Error thrown for expensive calls while the server is overloaded.
+     */
+    public static final String SERVER_BUSY = "Server is busy, try again later";
+
+    // Ticks averaged over, and how far below a threshold the tick time must drop to leave its state
+    private static final int WINDOW = 20;
+    private static final double HYSTERESIS = 0.9;
+
+    // Baked from the config
+    private static volatile boolean enabled = true;
+    private static volatile double strainedMspt = 40.0;
+    private static volatile double overloadedMspt = 50.0;
+    private static volatile int maxDeferTicks = 100;
+
+    // Only touched on the server thread
+    private static final long[] window = new long[WINDOW];
+    private static int windowIndex = 0;
+    private static int samples = 0;
+    private static long windowTotal = 0L;
+    private static long tickStart = 0L;
+
+    private static volatile State state = State.NORMAL;
+    private static volatile double mspt = 0.0;
+
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder expired = new LongAdder();
+
+    private TardimGovernor() {
+    }
+
+    /**
+     * Records how long a server tick took. Must be called once per tick on the server thread.
+     */
+    public static void recordTick(long nanos) {
+        windowTotal += nanos - window[windowIndex];
+        window[windowIndex] = nanos;
+        windowIndex = (windowIndex + 1) % WINDOW;
+        samples = Math.min(samples + 1, WINDOW);
+
+        double average = windowTotal / (double) samples / 1_000_000.0;
+        mspt = average;
+
+        State next = nextState(state, average);
+        if (next != state) {
+            LOGGER.debug("TARDIM governor {} -> {} at {} mspt", state.getName(), next.getName(), String.format(Locale.ROOT, "%.1f", average));
+            state = next;
+        }
+    }
+
+    private static State nextState(State current, double average) {
+        if (!enabled) {
+            return State.NORMAL;
+        }
+        if (average >= overloadedMspt) {
+            return State.OVERLOADED;
+        }
+        if (current == State.OVERLOADED && average >= overloadedMspt * HYSTERESIS) {
+            return State.OVERLOADED;
+        }
+        if (average >= strainedMspt) {
+            return State.STRAINED;
+        }
+        if (current != State.NORMAL && average >= strainedMspt * HYSTERESIS) {
+            return State.STRAINED;
+        }
+        return State.NORMAL;
+    }
+
+    public static State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the average tick time over the last second, in milliseconds.
+     */
+    public static double getMspt() {
+        return mspt;
+    }
+
+    public static long getRejected() {
+        return rejected.sum();
+    }
+
+    public static long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * Checks whether calls of a tier should be refused outright. Safe to call from any thread.
+     */
+    public static boolean isRejected(TardimCost.Tier tier) {
+        if (state == State.OVERLOADED && tier == TardimCost.Tier.EXPENSIVE) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether calls of a tier should wait for the server to recover.
+     */
+    public static boolean isDeferred(TardimCost.Tier tier) {
+        return switch (state) {
+            case NORMAL -> false;
+            case STRAINED -> tier == TardimCost.Tier.EXPENSIVE;
+            case OVERLOADED -> tier != TardimCost.Tier.CHEAP;
+        };
+    }
+
+    /**
+     * Gets how many ticks a call may be deferred before it is rejected instead.
+     */
+    public static int getMaxDeferTicks() {
+        return maxDeferTicks;
+    }
+
+    /**
+     * Records a deferred call being rejected because the server didn't recover in time.
+     */
+    public static void recordExpired() {
+        expired.increment();
+    }
+
+    /**
+     * Gets how much each computer's main-thread budget is divided by in the current state.
+     */
+    public static int getBudgetDivisor() {
+        return state == State.NORMAL ? 1 : 2;
+    }
+
+    /**
+     * Converts the governor's state into a Lua table.
+     */
+    public static ObjectLuaTable toLuaTable() {
+        return new ObjectLuaTable(Map.of(
+            "state", state.getName(),
+            "mspt", mspt,
+            "strainedMspt", strainedMspt,
+            "overloadedMspt", overloadedMspt,
+            "enabled", enabled,
+            "rejected", getRejected(),
+            "expired", getExpired()
+        ));
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            tickStart = System.nanoTime();
+        } else if (tickStart != 0L) {
+            recordTick(System.nanoTime() - tickStart);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        Arrays.fill(window, 0L);
+        windowIndex = 0;
+        samples = 0;
+        windowTotal = 0L;
+        tickStart = 0L;
+        state = State.NORMAL;
+        mspt = 0.0;
+    }
+
+    /**
+     * Bakes the thresholds whenever the common config is loaded.
+     */
+    @Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    public static final class ConfigEvents {
+        private ConfigEvents() {
+        }
+
+        @SubscribeEvent
+        public static void onConfigLoad(ModConfigEvent.Loading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                bakeConfig();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onConfigReload(ModConfigEvent.Reloading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                bakeConfig();
+            }
+        }
+    }
+
+    private static void bakeConfig() {
+        enabled = SionaConfig.COMMON.enableGovernor.get();
+        strainedMspt = SionaConfig.COMMON.governorStrainedMspt.get();
+        overloadedMspt = Math.max(strainedMspt, SionaConfig.COMMON.governorOverloadedMspt.get());
+        maxDeferTicks = SionaConfig.COMMON.governorMaxDeferTicks.get();
+    }
+
+    /**
+     * How far behind the server is.
+     */
+    public enum State {
+        NORMAL,
+        STRAINED,
+        OVERLOADED;
+
+        /**
+         * Gets the name passed to Lua.
+         */
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
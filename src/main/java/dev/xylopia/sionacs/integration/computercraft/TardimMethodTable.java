@@ -0,0 +1,246 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import dan200.computercraft.api.lua.IArguments;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.LuaFunction;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+import dev.xylopia.sionacs.utils.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared dispatch table for every {@link LuaFunction} exposed by {@link TardimAPI}.
+ * The table is built once when the class is initialised: each method becomes a
+ * {@link MethodHandle} of type {@code (TardimAPI, IArguments) -> Object} with its
+ * argument decoders already bound, so a Lua call is an array index and one invokeExact.
+ */
+public final class TardimMethodTable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimMethodTable");
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, TardimAPI.class, IArguments.class);
+
+    // Argument decoders, all of shape (IArguments, int) -> T
+    private static final MethodHandle GET_STRING;
+    private static final MethodHandle GET_BOOLEAN;
+    private static final MethodHandle GET_INT;
+    private static final MethodHandle GET_LONG;
+    private static final MethodHandle GET_DOUBLE;
+    private static final MethodHandle GET_TABLE;
+    private static final MethodHandle GET_OBJECT;
+    private static final MethodHandle OPT_STRING;
+    private static final MethodHandle OPT_BOOLEAN;
+    private static final MethodHandle OPT_INT;
+    private static final MethodHandle OPT_LONG;
+    private static final MethodHandle OPT_DOUBLE;
+
+    private static final String[] NAMES;
+    private static final MethodHandle[] INVOKERS;
+    private static final boolean[] MAIN_THREAD;
+    private static final TardimCost.Tier[] COSTS;
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            GET_STRING = lookup.findVirtual(IArguments.class, "getString", MethodType.methodType(String.class, int.class));
+            GET_BOOLEAN = lookup.findVirtual(IArguments.class, "getBoolean", MethodType.methodType(boolean.class, int.class));
+            GET_INT = lookup.findVirtual(IArguments.class, "getInt", MethodType.methodType(int.class, int.class));
+            GET_LONG = lookup.findVirtual(IArguments.class, "getLong", MethodType.methodType(long.class, int.class));
+            GET_DOUBLE = lookup.findVirtual(IArguments.class, "getDouble", MethodType.methodType(double.class, int.class));
+            GET_TABLE = lookup.findVirtual(IArguments.class, "getTable", MethodType.methodType(Map.class, int.class));
+            GET_OBJECT = lookup.findVirtual(IArguments.class, "get", MethodType.methodType(Object.class, int.class));
+
+            MethodType optional = MethodType.methodType(Optional.class, int.class);
+            OPT_STRING = lookup.findVirtual(IArguments.class, "optString", optional);
+            OPT_BOOLEAN = lookup.findVirtual(IArguments.class, "optBoolean", optional);
+            OPT_INT = lookup.findVirtual(IArguments.class, "optInt", optional);
+            OPT_LONG = lookup.findVirtual(IArguments.class, "optLong", optional);
+            OPT_DOUBLE = lookup.findVirtual(IArguments.class, "optDouble", optional);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+
+        // Sort by name so method indices are stable between runs
+        Method[] methods = Arrays.stream(TardimAPI.class.getMethods())
+                .filter(method -> method.isAnnotationPresent(LuaFunction.class))
+                .sorted(Comparator.comparing(Method::getName))
+                .toArray(Method[]::new);
+
+        NAMES = new String[methods.length];
+        INVOKERS = new MethodHandle[methods.length];
+        MAIN_THREAD = new boolean[methods.length];
+        COSTS = new TardimCost.Tier[methods.length];
+
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            NAMES[i] = method.getName();
+            MAIN_THREAD[i] = method.getAnnotation(LuaFunction.class).mainThread();
+            TardimCost cost = method.getAnnotation(TardimCost.class);
+            COSTS[i] = cost == null ? TardimCost.Tier.CHEAP : cost.value();
+            INDEX.put(method.getName(), i);
+            try {
+                INVOKERS[i] = compile(lookup, method);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        LOGGER.debug("Compiled {} TARDIM Lua methods", NAMES.length);
+    }
+
+    private TardimMethodTable() {
+    }
+
+    /**
+     * Builds the invoker for a single API method by filtering each parameter through
+     * its decoder and collapsing the repeated IArguments parameters into one.
+     */
+    private static MethodHandle compile(MethodHandles.Lookup lookup, Method method) throws ReflectiveOperationException {
+        MethodHandle target = lookup.unreflect(method);
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+
+        MethodHandle[] decoders = new MethodHandle[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            decoders[i] = paramTypes[i] == Optional.class
+                    ? optionalDecoder(method, genericTypes[i], i)
+                    : decoder(paramTypes[i], i);
+        }
+        target = MethodHandles.filterArguments(target, 1, decoders);
+
+        // (TardimAPI, IArguments, IArguments, ...) -> (TardimAPI, IArguments)
+        int[] reorder = new int[paramTypes.length + 1];
+        Arrays.fill(reorder, 1);
+        reorder[0] = 0;
+        target = MethodHandles.permuteArguments(target,
+                MethodType.methodType(target.type().returnType(), TardimAPI.class, IArguments.class), reorder);
+
+        // Boxes primitive results and turns void into null
+        return target.asType(INVOKER_TYPE);
+    }
+
+    /**
+     * Gets a decoder of type {@code (IArguments) -> type} reading the argument at the given index.
+     */
+    private static MethodHandle decoder(Class<?> type, int index) {
+        MethodHandle getter;
+        if (type == String.class) {
+            getter = GET_STRING;
+        } else if (type == boolean.class || type == Boolean.class) {
+            getter = GET_BOOLEAN;
+        } else if (type == int.class || type == Integer.class) {
+            getter = GET_INT;
+        } else if (type == long.class || type == Long.class) {
+            getter = GET_LONG;
+        } else if (type == double.class || type == Double.class) {
+            getter = GET_DOUBLE;
+        } else if (type == Map.class) {
+            getter = GET_TABLE;
+        } else {
+            getter = GET_OBJECT;
+        }
+        return MethodHandles.insertArguments(getter, 1, index)
+                .asType(MethodType.methodType(type, IArguments.class));
+    }
+
+    /**
+     * Gets a decoder of type {@code (IArguments) -> Optional} reading an optional argument,
+     * based on the Optional's type parameter.
+     */
+    private static MethodHandle optionalDecoder(Method method, Type type, int index) {
+        Type element = type instanceof ParameterizedType parameterized ? parameterized.getActualTypeArguments()[0] : null;
+
+        MethodHandle getter;
+        if (element == String.class) {
+            getter = OPT_STRING;
+        } else if (element == Boolean.class) {
+            getter = OPT_BOOLEAN;
+        } else if (element == Integer.class) {
+            getter = OPT_INT;
+        } else if (element == Long.class) {
+            getter = OPT_LONG;
+        } else if (element == Double.class) {
+            getter = OPT_DOUBLE;
+        } else {
+            throw new IllegalArgumentException("Unsupported optional parameter " + type + " on " + method.getName());
+        }
+        return MethodHandles.insertArguments(getter, 1, index);
+    }
+
+    /**
+     * Gets the names of all methods, in index order.
+     * The array is shared between every peripheral and must not be modified.
+     */
+    public static String[] getMethodNames() {
+        return NAMES;
+    }
+
+    /**
+     * Gets the index of a method by name.
+     * @return The method index, or -1 if no such method exists.
+     */
+    public static int indexOf(String name) {
+        Integer index = INDEX.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the name of the method at the given index.
+     */
+    public static String getName(int index) {
+        return NAMES[index];
+    }
+
+    /**
+     * Checks whether the method at the given index must run on the server thread.
+     */
+    public static boolean isMainThread(int index) {
+        return MAIN_THREAD[index];
+    }
+
+    /**
+     * Gets the cost tier of the method at the given index.
+     */
+    public static TardimCost.Tier getCost(int index) {
+        return COSTS[index];
+    }
+
+    /**
+     * Invokes a method on the given API instance.
+     *
+     * @param index     The method index
+     * @param api       The API instance to call the method on
+     * @param arguments The Lua arguments
+     * @return The method's result, or null for void methods
+     * @throws LuaException If the method fails or the arguments are invalid
+     */
+    public static Object invoke(int index, TardimAPI api, IArguments arguments) throws LuaException {
+        if (index < 0 || index >= INVOKERS.length) {
+            throw new LuaException("Method index " + index + " does not exist");
+        }
+
+        try {
+            return INVOKERS[index].invokeExact(api, arguments);
+        } catch (LuaException | Error e) {
+            throw e;
+        } catch (RuntimeException e) {
+            LOGGER.error("Error executing method {}", NAMES[index], e);
+            throw new LuaException("Error in " + NAMES[index] + ": " + e.getMessage());
+        } catch (Throwable e) {
+            // API methods only declare LuaException, so this should never happen
+            throw new IllegalStateException("Unexpected exception from " + NAMES[index], e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.integration.tardim.TardimPersistence;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * Call metrics for the TARDIM peripheral's Lua methods.
+ * Everything is counted with {@link LongAdder}s, so computer threads and the server thread never
+ * contend on a shared counter. When metrics are disabled in the config, recording is a single
+ * volatile read.
+ *
+ * Main-thread execution times go into log2 histograms with one bucket per power of two nanoseconds,
+ * which is enough to tell a 50us call from a 5ms one without storing individual samples.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public final class TardimMetrics {
+    // Bucket i holds times in [2^(i-1), 2^i) ns; the last bucket also holds anything slower
+    private static final int BUCKETS = 40;
+    private static final int TOP_COMPUTERS = 5;
+
+    private static volatile boolean enabled = false;
+
+    private static final MethodStats[] METHODS;
+    private static final Map<Integer, LongAdder> computerCalls = new ConcurrentHashMap<>();
+
+    static {
+        String[] names = TardimMethodTable.getMethodNames();
+        METHODS = new MethodStats[names.length];
+        for (int i = 0; i < names.length; i++) {
+            METHODS[i] = new MethodStats(names[i]);
+        }
+    }
+
+    private TardimMetrics() {
+    }
+
+    /**
+     * Checks whether metrics are being recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a call to a method. Only call this if {@link #isEnabled()}.
+     *
+     * @param method     The method index
+     * @param computerId The ID of the calling computer
+     */
+    public static void recordCall(int method, int computerId) {
+        METHODS[method].calls.increment();
+        computerCalls.computeIfAbsent(computerId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records how long a method took to run on the server thread. Only call this if {@link #isEnabled()}.
+     *
+     * @param method The method index
+     * @param nanos  Execution time in nanoseconds
+     */
+    public static void recordMainThread(int method, long nanos) {
+        MethodStats stats = METHODS[method];
+        stats.mainThreadCalls.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+        stats.histogram[bucket(nanos)].increment();
+    }
+
+    /**
+     * Records a method throwing an error. Only call this if {@link #isEnabled()}.
+     */
+    public static void recordError(int method) {
+        METHODS[method].errors.increment();
+    }
+
+    /**
+     * Clears all recorded metrics, including the call scheduler's throttling statistics.
+     */
+    public static void reset() {
+        for (MethodStats stats : METHODS) {
+            stats.reset();
+        }
+        computerCalls.clear();
+        TardimCallScheduler.resetStats();
+    }
+
+    private static int bucket(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, nanos)));
+    }
+
+    /**
+     * Gets the upper bound of a histogram bucket, in milliseconds.
+     */
+    private static double bucketLimitMs(int bucket) {
+        return (1L << bucket) / 1_000_000.0;
+    }
+
+    /**
+     * Gets the methods which have been called since the last reset, slowest in total first.
+     */
+    public static List<MethodStats> getCalledMethods() {
+        List<MethodStats> called = new ArrayList<>();
+        for (MethodStats stats : METHODS) {
+            if (stats.getCalls() > 0) {
+                called.add(stats);
+            }
+        }
+        called.sort(Comparator.comparingLong(MethodStats::getTotalNanos).thenComparingLong(MethodStats::getCalls).reversed());
+        return called;
+    }
+
+    /**
+     * Gets the computers which have made the most calls since the last reset.
+     * @return Pairs of computer ID and call count, most calls first
+     */
+    public static List<Map.Entry<Integer, Long>> getTopComputers() {
+        List<Map.Entry<Integer, Long>> computers = new ArrayList<>(computerCalls.size());
+        computerCalls.forEach((id, calls) -> computers.add(Map.entry(id, calls.sum())));
+        computers.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+        return computers.size() > TOP_COMPUTERS ? computers.subList(0, TOP_COMPUTERS) : computers;
+    }
+
+    /**
+     * Converts the current metrics into a Lua table.
+     */
+    public static ObjectLuaTable toLuaTable() {
+        Map<String, Object> methods = new HashMap<>();
+        for (MethodStats stats : getCalledMethods()) {
+            methods.put(stats.getName(), stats.toLuaTable());
+        }
+
+        Map<Integer, Object> computers = new HashMap<>();
+        List<Map.Entry<Integer, Long>> top = getTopComputers();
+        for (int i = 0; i < top.size(); i++) {
+            computers.put(i + 1, new ObjectLuaTable(Map.of("id", top.get(i).getKey(), "calls", top.get(i).getValue())));
+        }
+
+        return new ObjectLuaTable(Map.of(
+            "enabled", enabled,
+            "methods", new ObjectLuaTable(methods),
+            "topComputers", new ObjectLuaTable(computers),
+            "scheduler", TardimCallScheduler.toLuaTable(),
+            "governor", TardimGovernor.toLuaTable(),
+            "saves", TardimPersistence.getSaves(),
+            "avoidedSaves", TardimPersistence.getAvoidedSaves()
+        ));
+    }
+
+    /**
+     * Writes the main-thread time histogram of every method which has run on the server thread as
+     * JSON, so the load simulation can replay real costs ({@code --costs}).
+     */
+    public static void export(Path file) throws IOException {
+        JsonObject methods = new JsonObject();
+        for (MethodStats stats : getCalledMethods()) {
+            if (stats.getMainThreadCalls() == 0) {
+                continue;
+            }
+
+            // Index i holds times in [2^(i-1), 2^i) ns, as in the histogram itself
+            JsonArray histogram = new JsonArray();
+            for (LongAdder bucket : stats.histogram) {
+                histogram.add(bucket.sum());
+            }
+
+            JsonObject method = new JsonObject();
+            method.addProperty("mainThreadCalls", stats.getMainThreadCalls());
+            method.addProperty("totalNanos", stats.getTotalNanos());
+            method.add("histogram", histogram);
+            methods.add(stats.getName(), method);
+        }
+
+        JsonObject root = new JsonObject();
+        root.add("methods", methods);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(root));
+    }
+
+    @SubscribeEvent
+    public static void onConfigLoad(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+            enabled = SionaConfig.COMMON.enableTardimMetrics.get();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onConfigReload(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+            enabled = SionaConfig.COMMON.enableTardimMetrics.get();
+        }
+    }
+
+    /**
+     * Metrics for a single Lua method.
+     */
+    public static final class MethodStats {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder mainThreadCalls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        private MethodStats(String name) {
+            this.name = name;
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void reset() {
+            calls.reset();
+            errors.reset();
+            mainThreadCalls.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * Gets the number of calls which ran on the server thread.
+         */
+        public long getMainThreadCalls() {
+            return mainThreadCalls.sum();
+        }
+
+        /**
+         * Gets the total server thread time spent in this method, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Estimates a percentile of the server thread time from the histogram.
+         *
+         * @param fraction The percentile, between 0 and 1
+         * @return The upper bound of the bucket containing the percentile, in milliseconds
+         */
+        public double getPercentileMs(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return bucketLimitMs(i);
+                }
+            }
+            return bucketLimitMs(BUCKETS - 1);
+        }
+
+        private ObjectLuaTable toLuaTable() {
+            Map<Integer, Long> buckets = new HashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = histogram[i].sum();
+                if (count > 0) {
+                    // Lua index n holds times below 2^(n-1) ns
+                    buckets.put(i + 1, count);
+                }
+            }
+
+            Map<String, Object> table = new HashMap<>();
+            table.put("calls", getCalls());
+            table.put("errors", getErrors());
+            table.put("mainThreadCalls", getMainThreadCalls());
+            table.put("totalMs", getTotalNanos() / 1_000_000.0);
+            table.put("maxMs", getMaxNanos() / 1_000_000.0);
+            table.put("p50Ms", getPercentileMs(0.5));
+            table.put("p99Ms", getPercentileMs(0.99));
+            table.put("histogram", new ObjectLuaTable(buckets));
+            return new ObjectLuaTable(table);
+        }
+    }
+}
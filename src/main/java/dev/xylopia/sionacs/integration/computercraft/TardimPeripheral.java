@@ -3,25 +3,19 @@ package dev.xylopia.sionacs.integration.computercraft;
 import dan200.computercraft.api.lua.IArguments;
 import dan200.computercraft.api.lua.ILuaContext;
 import dan200.computercraft.api.lua.LuaException;
-import dan200.computercraft.api.lua.LuaFunction;
 import dan200.computercraft.api.lua.MethodResult;
-import dan200.computercraft.api.peripheral.AttachedComputerSet;
 import dan200.computercraft.api.peripheral.IComputerAccess;
 import dan200.computercraft.api.peripheral.IDynamicPeripheral;
 import dan200.computercraft.api.peripheral.IPeripheral;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.integration.tardim.TardimStateEvents;
 import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
-import dev.xylopia.sionacs.integration.tardim.peripheral.TardimPeripheralBlockEntity;
 import dev.xylopia.sionacs.utils.Constants;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,29 +25,13 @@ import java.util.Set;
 public class TardimPeripheral implements IDynamicPeripheral {
     private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimPeripheral");
     
-    private final TardimPeripheralBlockEntity blockEntity;
+    private final TardimHost host;
     private final TardimAPI api;
-    private final AttachedComputerSet computers = new AttachedComputerSet();
-    private final String[] methodNames;
-    private final Map<String, Method> methods = new HashMap<>();
     
-    public TardimPeripheral(TardimPeripheralBlockEntity blockEntity) {
-        this.blockEntity = blockEntity;
-        this.api = new TardimAPI(blockEntity);
-        LOGGER.debug("Created new TARDIM peripheral for block entity at {}", blockEntity.getBlockPos());
-        
-        // Collect all @LuaFunction methods from the API
-        methodNames = Arrays.stream(TardimAPI.class.getMethods())
-            .filter(method -> method.isAnnotationPresent(LuaFunction.class))
-            .map(Method::getName)
-            .toArray(String[]::new);
-        
-        // Map method names to Method objects for faster lookup
-        for (Method method : TardimAPI.class.getMethods()) {
-            if (method.isAnnotationPresent(LuaFunction.class)) {
-                methods.put(method.getName(), method);
-            }
-        }
+    public TardimPeripheral(TardimHost host) {
+        this.host = host;
+        this.api = new TardimAPI(host);
+        LOGGER.debug("Created new TARDIM peripheral for block entity at {}", host.getBlockPos());
     }
     
     @NotNull
@@ -72,91 +50,94 @@ public class TardimPeripheral implements IDynamicPeripheral {
         if (this == other) return true;
         if (other == null || getClass() != other.getClass()) return false;
         TardimPeripheral that = (TardimPeripheral) other;
-        return blockEntity.getBlockPos().equals(that.blockEntity.getBlockPos());
+        return host.getBlockPos().equals(that.host.getBlockPos());
     }
     
     @Override
     public Object getTarget() {
-        return this.blockEntity;
+        return this.host;
     }
     
     @Override
     public void attach(@NotNull IComputerAccess computer) {
-        LOGGER.debug("Computer {} attached to TARDIM peripheral at {}", computer.getID(), blockEntity.getBlockPos());
-        computers.add(computer);
+        LOGGER.debug("Computer {} attached to TARDIM peripheral at {}", computer.getID(), host.getBlockPos());
+        host.attachComputer(computer);
     }
     
     @Override
     public void detach(@NotNull IComputerAccess computer) {
-        LOGGER.debug("Computer {} detached from TARDIM peripheral at {}", computer.getID(), blockEntity.getBlockPos());
-        computers.remove(computer);
+        LOGGER.debug("Computer {} detached from TARDIM peripheral at {}", computer.getID(), host.getBlockPos());
+        host.detachComputer(computer);
     }
     
     @Override
     public String[] getMethodNames() {
-        return methodNames;
+        return TardimMethodTable.getMethodNames();
     }
     
     @Override
     public MethodResult callMethod(IComputerAccess computer, ILuaContext context, int methodIndex, IArguments arguments) throws LuaException {
-        // Get the method name from our array
-        String methodName = methodNames[methodIndex];
-        Method method = methods.get(methodName);
-        
-        if (method == null) {
-            throw new LuaException("Method " + methodName + " does not exist");
+        boolean metrics = TardimMetrics.isEnabled();
+        if (metrics) {
+            TardimMetrics.recordCall(methodIndex, computer.getID());
         }
-        
-        try {
-            // Get the number of parameters the method expects
-            Class<?>[] paramTypes = method.getParameterTypes();
-            Object[] params = new Object[paramTypes.length];
-            
-            // Convert Lua arguments to Java types
-            for (int i = 0; i < params.length; i++) {
-                if (i < arguments.count()) {
-                    if (paramTypes[i] == String.class) {
-                        params[i] = arguments.getString(i);
-                    } else if (paramTypes[i] == boolean.class || paramTypes[i] == Boolean.class) {
-                        params[i] = arguments.getBoolean(i);
-                    } else if (paramTypes[i] == int.class || paramTypes[i] == Integer.class) {
-                        params[i] = arguments.getInt(i);
-                    } else if (paramTypes[i] == double.class || paramTypes[i] == Double.class) {
-                        params[i] = arguments.getDouble(i);
-                    } else {
-                        params[i] = arguments.get(i);
-                    }
+
+        // Getters read the published snapshot, but until the first one exists they go via the main thread
+        if (!TardimMethodTable.isMainThread(methodIndex) && host.isSnapshotPublished()) {
+            try {
+                return MethodResult.of(TardimMethodTable.invoke(methodIndex, api, arguments));
+            } catch (LuaException e) {
+                if (metrics) {
+                    TardimMetrics.recordError(methodIndex);
                 }
+                throw e;
             }
-            
-            // Call the method on our API object
-            Object result = method.invoke(api, params);
-            
-            // Return the result - null becomes an empty array
-            return MethodResult.of(result);
-        } catch (IllegalAccessException e) {
-            LOGGER.error("Failed to access method {}", methodName, e);
-            throw new LuaException("Cannot access method " + methodName);
-        } catch (InvocationTargetException e) {
-            // If the method threw a LuaException, re-throw it
-            Throwable cause = e.getCause();
-            if (cause instanceof LuaException) {
-                throw (LuaException) cause;
+        }
+
+        // Expensive calls are turned away up front while the server is overloaded
+        TardimCost.Tier cost = TardimMethodTable.getCost(methodIndex);
+        if (TardimGovernor.isRejected(cost)) {
+            if (metrics) {
+                TardimMetrics.recordError(methodIndex);
             }
-            
-            LOGGER.error("Error executing method {}", methodName, e.getCause());
-            throw new LuaException("Error in " + methodName + ": " + e.getCause().getMessage());
+            throw new LuaException(TardimGovernor.SERVER_BUSY);
         }
+
+        // The arguments outlive this call, so detach them from the Lua VM before deferring
+        IArguments escaped = arguments.escapes();
+        // Run through the fair scheduler rather than straight on the main thread, so one computer can't take the tick
+        return TardimCallScheduler.submit(computer, cost, () -> {
+            long start = metrics ? System.nanoTime() : 0L;
+            if (!host.isSnapshotPublished()) {
+                host.publishSnapshot();
+            }
+
+            try {
+                Object result = TardimMethodTable.invoke(methodIndex, api, escaped);
+                return result == null ? null : new Object[] { result };
+            } catch (LuaException e) {
+                if (metrics) {
+                    TardimMetrics.recordError(methodIndex);
+                }
+                throw e;
+            } finally {
+                // Republish straight away so getters see this call's changes without waiting a tick
+                host.publishSnapshot();
+                if (metrics) {
+                    TardimMetrics.recordMainThread(methodIndex, System.nanoTime() - start);
+                }
+            }
+        });
     }
     
     /**
-     * Broadcast an event to all attached computers.
-     * Useful for notifying computers about TARDIS events like takeoff or landing.
+     * Broadcast an event to all computers attached to this peripheral's host.
+     * State changes such as takeoff or landing are sent automatically by {@link TardimStateEvents}.
      *
      * @param event The name of the event
      * @param args  Arguments to pass with the event
      */
     public void broadcastEvent(String event, Object... args) {
-        computers.queueEvent(event, args);
+        host.getComputers().queueEvent(event, args);
     }
 }
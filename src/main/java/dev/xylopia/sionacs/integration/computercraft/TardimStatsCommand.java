@@ -0,0 +1,106 @@
+package dev.xylopia.sionacs.integration.computercraft;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.mojang.brigadier.context.CommandContext;
+
+import dev.xylopia.sionacs.integration.tardim.TardimPersistence;
+import dev.xylopia.sionacs.integration.tardim.peripheral.TardimPeripheralTracker;
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code /sionacs stats [reset|export]} command, which prints the TARDIM peripheral's call metrics.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class TardimStatsCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimStatsCommand");
+
+    // Number of methods listed, slowest in total first
+    private static final int MAX_METHODS = 10;
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(Constants.MOD_ID)
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats")
+                        .executes(TardimStatsCommand::show)
+                        .then(Commands.literal("reset")
+                                .executes(TardimStatsCommand::reset))
+                        .then(Commands.literal("export")
+                                .executes(TardimStatsCommand::export))));
+    }
+
+    private static int show(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        if (!TardimMetrics.isEnabled()) {
+            source.sendSuccess(() -> Component.literal("TARDIM metrics are disabled (enableTardimMetrics in the common config)")
+                    .withStyle(ChatFormatting.YELLOW), false);
+        }
+
+        source.sendSuccess(() -> Component.literal(String.format("Active peripherals: %d, saves: %d, avoided saves: %d",
+                TardimPeripheralTracker.getActiveCount(), TardimPersistence.getSaves(), TardimPersistence.getAvoidedSaves())), false);
+
+        // Throttling is always tracked, so show it even when metrics are off
+        StringBuilder throttled = new StringBuilder(String.format("Deferred calls: %d, most throttled:", TardimCallScheduler.getDeferredCalls()));
+        for (Map.Entry<Integer, Long> entry : TardimCallScheduler.getTopThrottled()) {
+            throttled.append(" #").append(entry.getKey()).append(" (").append(entry.getValue()).append(" ticks)");
+        }
+        source.sendSuccess(() -> Component.literal(throttled.toString()), false);
+        source.sendSuccess(() -> Component.literal(String.format("Governor: %s at %.1f mspt, rejected: %d, expired: %d",
+                TardimGovernor.getState().getName(), TardimGovernor.getMspt(), TardimGovernor.getRejected(), TardimGovernor.getExpired())), false);
+
+        List<TardimMetrics.MethodStats> methods = TardimMetrics.getCalledMethods();
+        if (methods.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("No calls recorded"), false);
+            return 0;
+        }
+
+        for (TardimMetrics.MethodStats stats : methods.subList(0, Math.min(MAX_METHODS, methods.size()))) {
+            String line = String.format("%s: %d calls, %d errors, %.2fms total, p50 %.3fms, p99 %.3fms, max %.3fms",
+                    stats.getName(), stats.getCalls(), stats.getErrors(), stats.getTotalNanos() / 1_000_000.0,
+                    stats.getPercentileMs(0.5), stats.getPercentileMs(0.99), stats.getMaxNanos() / 1_000_000.0);
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        StringBuilder computers = new StringBuilder("Top computers:");
+        for (Map.Entry<Integer, Long> entry : TardimMetrics.getTopComputers()) {
+            computers.append(" #").append(entry.getKey()).append(" (").append(entry.getValue()).append(')');
+        }
+        source.sendSuccess(() -> Component.literal(computers.toString()), false);
+
+        return methods.size();
+    }
+
+    private static int reset(CommandContext<CommandSourceStack> context) {
+        TardimMetrics.reset();
+        context.getSource().sendSuccess(() -> Component.literal("TARDIM metrics reset"), true);
+        return 1;
+    }
+
+    private static int export(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        // Next to the files vanilla's /debug writes
+        Path file = source.getServer().getServerDirectory().toPath().resolve("debug").resolve(Constants.MOD_ID + "-metrics.json");
+        try {
+            TardimMetrics.export(file);
+        } catch (IOException e) {
+            LOGGER.error("Failed to export TARDIM metrics to {}", file, e);
+            source.sendFailure(Component.literal("Could not export TARDIM metrics"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("TARDIM metrics exported to " + file), true);
+        return 1;
+    }
+}
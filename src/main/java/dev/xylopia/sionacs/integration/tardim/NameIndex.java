@@ -0,0 +1,203 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectLuaTable;
+
+/**
+ * A searchable index over registry names such as {@code minecraft:plains}.
+ *
+ * Names are kept sorted, both whole and by path alone, so a prefix query is two binary searches
+ * and costs O(log n + k) for k results. A query without a colon matches either the namespace or
+ * the path, so "mine" finds every minecraft entry and "pla" finds plains in every namespace.
+ * Queries containing {@code *} or {@code ?} are glob patterns and scan the whole index.
+ * Results of recent queries are cached, so typeahead pages don't search again.
+ *
+ * Instances are immutable apart from the query cache, and safe to use from any thread.
+ */
+public final class NameIndex {
+    /** Longest query accepted, so the cache can't be filled with huge keys. */
+    public static final int MAX_QUERY_LENGTH = 256;
+    private static final int CACHE_SIZE = 128;
+
+    private final String[] names;
+    private final String[] paths;
+    private final int[] pathOwners;
+    private final Map<String, int[]> cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    });
+
+    public NameIndex(String[] unsorted) {
+        this.names = unsorted.clone();
+        Arrays.sort(names);
+
+        // Sort the paths alongside the position of the name each one came from
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> path(names[a]).compareTo(path(names[b])));
+
+        this.paths = new String[names.length];
+        this.pathOwners = new int[names.length];
+        for (int i = 0; i < order.length; i++) {
+            paths[i] = path(names[order[i]]);
+            pathOwners[i] = order[i];
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Counts the names matching a query.
+     */
+    public int count(String query) throws LuaException {
+        return find(query).length;
+    }
+
+    /**
+     * Gets a page of the names matching a query, in alphabetical order.
+     *
+     * @param offset Number of matches to skip
+     * @param limit  Largest number of names to return
+     * @return Lua list of names
+     */
+    public ObjectLuaTable page(String query, int offset, int limit) throws LuaException {
+        if (offset < 0) {
+            throw new LuaException("Offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new LuaException("Limit must be at least 1");
+        }
+
+        int[] matches = find(query);
+        int end = (int) Math.min(matches.length, (long) offset + limit);
+        if (offset >= end) {
+            return new ObjectLuaTable(Map.of());
+        }
+
+        Map.Entry<?, ?>[] entries = new Map.Entry<?, ?>[end - offset];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = Map.entry(i + 1, names[matches[offset + i]]);
+        }
+        return new ObjectLuaTable(Map.ofEntries(entries));
+    }
+
+    /**
+     * Finds the names matching a query.
+     * @return Positions in the sorted names, in ascending order. Must not be modified.
+     */
+    private int[] find(String query) throws LuaException {
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new LuaException("Query is too long");
+        }
+
+        String key = query.toLowerCase(Locale.ROOT);
+        int[] matches = cache.get(key);
+        if (matches == null) {
+            matches = key.indexOf('*') >= 0 || key.indexOf('?') >= 0 ? findPattern(key) : findPrefix(key);
+            cache.put(key, matches);
+        }
+        return matches;
+    }
+
+    private int[] findPrefix(String prefix) {
+        int start = lowerBound(names, prefix);
+        int end = lowerBound(names, prefix + Character.MAX_VALUE);
+        if (prefix.indexOf(':') >= 0) {
+            return range(start, end);
+        }
+
+        // Without a colon, also match by path. Names matching both ways are only listed once.
+        int pathStart = lowerBound(paths, prefix);
+        int pathEnd = lowerBound(paths, prefix + Character.MAX_VALUE);
+        int[] matches = new int[(end - start) + (pathEnd - pathStart)];
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            matches[count++] = i;
+        }
+        for (int i = pathStart; i < pathEnd; i++) {
+            int owner = pathOwners[i];
+            if (owner < start || owner >= end) {
+                matches[count++] = owner;
+            }
+        }
+
+        Arrays.sort(matches, 0, count);
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    private int[] findPattern(String glob) {
+        Pattern pattern = toPattern(glob);
+        boolean wholeName = glob.indexOf(':') >= 0;
+
+        int[] matches = new int[names.length];
+        int count = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (pattern.matcher(name).matches() || (!wholeName && pattern.matcher(path(name)).matches())) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static int[] range(int start, int end) {
+        int[] matches = new int[end - start];
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = start + i;
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the first position in a sorted array whose value is not less than the key.
+     */
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String path(String name) {
+        return name.substring(name.indexOf(':') + 1);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import com.swdteam.tardim.TardimData;
+
+import dan200.computercraft.api.peripheral.AttachedComputerSet;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Whatever a TARDIM peripheral is attached to.
+ * In game this is always a {@link dev.xylopia.sionacs.integration.tardim.peripheral.TardimPeripheralBlockEntity};
+ * the interface lets the benchmarks and load simulation drive the real API without a running world.
+ */
+public interface TardimHost {
+    /**
+     * Gets the TARDIM data, resolving it first if needed. Must be called on the server thread.
+     * @return The TARDIM data or null if not in a valid TARDIM.
+     */
+    @Nullable
+    TardimData getTardimData();
+
+    /**
+     * Gets the latest published snapshot of the TARDIM state. Safe to call from any thread.
+     * @return The snapshot, or null if not in a valid TARDIM.
+     */
+    @Nullable
+    TardimSnapshot getSnapshot();
+
+    /**
+     * Checks whether a snapshot has been published yet.
+     */
+    boolean isSnapshotPublished();
+
+    /**
+     * Publishes a new snapshot if the TARDIM state has changed. Must be called on the server thread.
+     */
+    void publishSnapshot();
+
+    /**
+     * Gets the computers attached to this host.
+     */
+    AttachedComputerSet getComputers();
+
+    void attachComputer(IComputerAccess computer);
+
+    void detachComputer(IComputerAccess computer);
+
+    @Nullable
+    Level getLevel();
+
+    BlockPos getBlockPos();
+
+    /**
+     * Checks whether this host has been removed from the world.
+     */
+    boolean isRemoved();
+}
@@ -0,0 +1,251 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.swdteam.common.init.TardimRegistry;
+
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.OnDatapackSyncEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cached lists of the server's biomes, dimensions and TARDIM skins, as returned to Lua.
+ *
+ * The lists only change on a datapack reload, when a level is loaded or unloaded, or when a skin
+ * is registered, so they are built once on the server thread and shared by every peripheral.
+ * Invalidated lists are rebuilt at the end of the tick; until then the previous list is served.
+ * Reads are safe from any thread.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class TardimListings {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimListings");
+
+    @Nullable private static volatile Listing biomes = null;
+    @Nullable private static volatile Listing dimensions = null;
+    @Nullable private static volatile Listing skins = null;
+
+    // Only touched on the server thread
+    private static boolean biomesDirty = false;
+    private static boolean dimensionsDirty = false;
+
+    private TardimListings() {
+    }
+
+    /**
+     * Gets the technical names of every registered biome.
+     */
+    public static ObjectLuaTable getBiomes() throws LuaException {
+        return require(biomes, "Biome").table;
+    }
+
+    /**
+     * Gets the search index over every registered biome.
+     */
+    public static NameIndex getBiomeIndex() throws LuaException {
+        return require(biomes, "Biome").index;
+    }
+
+    /**
+     * Gets the technical names of every loaded dimension.
+     */
+    public static ObjectLuaTable getDimensions() throws LuaException {
+        return require(dimensions, "Dimension").table;
+    }
+
+    /**
+     * Gets the search index over every loaded dimension.
+     */
+    public static NameIndex getDimensionIndex() throws LuaException {
+        return require(dimensions, "Dimension").index;
+    }
+
+    /**
+     * Gets the display names of every TARDIM skin.
+     */
+    public static ObjectLuaTable getSkins() {
+        // TARDIM has no event for new skins, so rebuild whenever the registry's size changes
+        Map<ResourceLocation, TardimRegistry.TardimBuilder> registry = TardimRegistry.getRegistry();
+        Listing current = skins;
+        if (current == null || current.source != registry.size()) {
+            String[] names = new String[registry.size()];
+            int i = 0;
+            for (TardimRegistry.TardimBuilder builder : registry.values()) {
+                if (i == names.length) {
+                    break;
+                }
+                names[i++] = builder.getDisplayName();
+            }
+            skins = current = new Listing(names, names.length);
+        }
+        return current.table;
+    }
+
+    private static Listing require(@Nullable Listing listing, String kind) throws LuaException {
+        if (listing == null) {
+            throw new LuaException(kind + " list is not available yet");
+        }
+        return listing;
+    }
+
+    private static void rebuildBiomes(MinecraftServer server) {
+        String[] names = server.registryAccess().registryOrThrow(Registries.BIOME).keySet().stream()
+            .map(ResourceLocation::toString)
+            .toArray(String[]::new);
+        biomes = new Listing(names, 0);
+        biomesDirty = false;
+        LOGGER.debug("Cached {} biomes", names.length);
+    }
+
+    private static void rebuildDimensions(MinecraftServer server) {
+        String[] names = server.levelKeys().stream()
+            .map(key -> key.location().toString())
+            .toArray(String[]::new);
+        dimensions = new Listing(names, 0);
+        dimensionsDirty = false;
+        LOGGER.debug("Cached {} dimensions", names.length);
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        rebuildBiomes(event.getServer());
+        rebuildDimensions(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onDatapackSync(OnDatapackSyncEvent event) {
+        // A null player means /reload, rather than a player joining
+        if (event.getPlayer() == null) {
+            biomesDirty = true;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelLoad(LevelEvent.Load event) {
+        if (!event.getLevel().isClientSide()) {
+            dimensionsDirty = true;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (!event.getLevel().isClientSide()) {
+            dimensionsDirty = true;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(biomesDirty || dimensionsDirty)) {
+            return;
+        }
+
+        if (biomesDirty) {
+            rebuildBiomes(event.getServer());
+        }
+        if (dimensionsDirty) {
+            rebuildDimensions(event.getServer());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        biomes = null;
+        dimensions = null;
+        biomesDirty = false;
+        dimensionsDirty = false;
+    }
+
+    /**
+     * A list of names, with the Lua table and search index built from it.
+     * @param source What the list was built from, to tell when it is out of date
+     */
+    private record Listing(int source, ObjectLuaTable table, NameIndex index) {
+        private Listing(String[] names, int source) {
+            this(source, new ObjectLuaTable(new ListMap(names)), new NameIndex(names));
+        }
+    }
+
+    /**
+     * An immutable map from 1-based index to name, backed by an array.
+     * Entries are created once, when the list is built, rather than on every call.
+     */
+    private static final class ListMap extends AbstractMap<Integer, String> {
+        private final String[] names;
+        private final Map.Entry<Integer, String>[] entries;
+        private final Set<Map.Entry<Integer, String>> entrySet = new EntrySet();
+
+        @SuppressWarnings("unchecked")
+        private ListMap(String[] names) {
+            this.names = names;
+            this.entries = new Map.Entry[names.length];
+            for (int i = 0; i < names.length; i++) {
+                entries[i] = Map.entry(i + 1, names[i]);
+            }
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer index && index >= 1 && index <= names.length;
+        }
+
+        @Override
+        public String get(Object key) {
+            return containsKey(key) ? names[(Integer) key - 1] : null;
+        }
+
+        @Override
+        public Set<Map.Entry<Integer, String>> entrySet() {
+            return entrySet;
+        }
+
+        private final class EntrySet extends AbstractSet<Map.Entry<Integer, String>> {
+            @Override
+            public int size() {
+                return entries.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<Integer, String>> iterator() {
+                return new Iterator<>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < entries.length;
+                    }
+
+                    @Override
+                    public Map.Entry<Integer, String> next() {
+                        if (next >= entries.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return entries[next++];
+                    }
+                };
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.swdteam.tardim.TardimData;
+
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind saving for TARDIM data.
+ * API calls mark a TARDIM dirty instead of writing it straight away, and each dirty TARDIM is
+ * written at most once per configured interval, plus a final flush when the world saves or
+ * the server stops.
+ *
+ * {@link TardimData#save()} serialises the live object as part of writing it, so flushes
+ * stay on the server thread; this class is only used from there.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class TardimPersistence {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimPersistence");
+
+    private static final Map<Integer, TardimData> dirty = new LinkedHashMap<>();
+    private static final Map<Integer, Long> lastSaved = new HashMap<>();
+    private static long tick = 0L;
+
+    private static final LongAdder saves = new LongAdder();
+    private static final LongAdder avoidedSaves = new LongAdder();
+
+    /**
+     * Marks a TARDIM as needing to be saved. Must be called on the server thread.
+     */
+    public static void markDirty(TardimData data) {
+        if (dirty.putIfAbsent(data.getId(), data) != null) {
+            avoidedSaves.increment();
+        }
+    }
+
+    /**
+     * Immediately saves every dirty TARDIM.
+     */
+    public static void flushAll() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        LOGGER.debug("Flushing {} dirty TARDIMs", dirty.size());
+        for (TardimData data : dirty.values()) {
+            save(data);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Gets the number of TARDIM saves performed through this class.
+     */
+    public static long getSaves() {
+        return saves.sum();
+    }
+
+    /**
+     * Gets the number of saves avoided by coalescing writes to an already dirty TARDIM.
+     */
+    public static long getAvoidedSaves() {
+        return avoidedSaves.sum();
+    }
+
+    private static void save(TardimData data) {
+        data.save();
+        lastSaved.put(data.getId(), tick);
+        saves.increment();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+
+        tick++;
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        long interval = SionaConfig.COMMON.saveIntervalTicks.get();
+        Iterator<TardimData> iterator = dirty.values().iterator();
+        while (iterator.hasNext()) {
+            TardimData data = iterator.next();
+            Long last = lastSaved.get(data.getId());
+            if (last == null || tick - last >= interval) {
+                save(data);
+                iterator.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        if (!event.getLevel().isClientSide()) {
+            flushAll();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        flushAll();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        dirty.clear();
+        lastSaved.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.swdteam.common.init.TRDDimensions;
+import com.swdteam.tardim.TardimManager;
+
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Works out which TARDIM a position in the TARDIM dimension belongs to.
+ *
+ * TARDIM interiors sit on a fixed grid of {@link TardimManager#INTERIOR_BOUNDS} sized cells, and
+ * {@link TardimManager#getIDForXZ} walks a spiral over that grid to find a cell's ID. The ID of a
+ * cell never changes, so it is looked up once and shared by every peripheral in the same interior.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class TardimResolver {
+    private static final Map<Long, Integer> cellIds = new ConcurrentHashMap<>();
+
+    private TardimResolver() {
+    }
+
+    /**
+     * Checks whether a level is the TARDIM interior dimension.
+     * Dimension keys are interned, so this is a reference comparison.
+     */
+    public static boolean isTardimLevel(Level level) {
+        return level.dimension() == TRDDimensions.TARDIS;
+    }
+
+    /**
+     * Gets the ID of the TARDIM whose interior contains a position.
+     * The position must be in the TARDIM dimension.
+     */
+    public static int getId(BlockPos pos) {
+        int bounds = TardimManager.INTERIOR_BOUNDS;
+
+        // Cells share their edges, and getIDForXZ decides who owns them by search order
+        if (Math.floorMod(pos.getX(), bounds) == 0 || Math.floorMod(pos.getZ(), bounds) == 0) {
+            return TardimManager.getIDForXZ(pos.getX(), pos.getZ());
+        }
+
+        long cell = ChunkPos.asLong(Math.floorDiv(pos.getX(), bounds), Math.floorDiv(pos.getZ(), bounds));
+        return cellIds.computeIfAbsent(cell, key -> TardimManager.getIDForXZ(pos.getX(), pos.getZ()));
+    }
+
+    /**
+     * Gets the number of interior cells which have been looked up.
+     */
+    public static int getCachedCells() {
+        return cellIds.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        // The interior size is configurable, so don't carry cells over between servers
+        cellIds.clear();
+    }
+}
@@ -0,0 +1,249 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.swdteam.tardim.TardimData;
+import com.swdteam.tardim.TardimData.Location;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable, versioned copy of the TARDIM state exposed to Lua.
+ * Snapshots are captured on the server thread and can be read from any thread,
+ * so read-only API calls don't need to wait for the next server tick.
+ */
+public final class TardimSnapshot {
+    private final long version;
+    private final int id;
+    private final double fuel;
+    private final boolean locked;
+    private final boolean inFlight;
+    private final long timeEnteredFlight;
+    private final String ownerName;
+    @Nullable private final UUID owner;
+    private final List<String> companions;
+
+    private final ResourceKey<Level> currentLevel;
+    private final BlockPos currentPos;
+    private final Direction currentFacing;
+
+    // Destination, null if no travel location has been set
+    @Nullable private final ResourceKey<Level> travelLevel;
+    @Nullable private final BlockPos travelPos;
+    @Nullable private final Direction travelFacing;
+
+    // Lua tables are built on first use and shared until the next snapshot
+    private volatile ObjectLuaTable currentLocationTable;
+    private volatile ObjectLuaTable travelLocationTable;
+    private volatile ObjectLuaTable companionsTable;
+
+    @SuppressWarnings("unchecked")
+    private TardimSnapshot(TardimData data, long version) {
+        this.version = version;
+        this.id = data.getId();
+        this.fuel = data.getFuel();
+        this.locked = data.isLocked();
+        this.inFlight = data.isInFlight();
+        this.timeEnteredFlight = data.getTimeEnteredFlight();
+        this.ownerName = data.getOwnerName();
+        this.owner = data.getOwner();
+        this.companions = data.getCompanions().stream().map(TardimData.Companion::getUsername).toList();
+
+        Location current = data.getCurrentLocation();
+        this.currentLevel = current.getLevel();
+        this.currentPos = current.getPos();
+        this.currentFacing = current.getFacing();
+
+        Location travel = data.getTravelLocation();
+        this.travelLevel = travel == null ? null : travel.getLevel();
+        this.travelPos = travel == null ? null : travel.getPos();
+        this.travelFacing = travel == null ? null : travel.getFacing();
+    }
+
+    /**
+     * Captures the current state of a TARDIM. Must be called on the server thread.
+     *
+     * @param data    The TARDIM data, with a current location and owner
+     * @param version The version number to give this snapshot
+     * @return The new snapshot
+     */
+    public static TardimSnapshot capture(TardimData data, long version) {
+        return new TardimSnapshot(data, version);
+    }
+
+    /**
+     * Checks whether this snapshot still reflects the given TARDIM data.
+     * This compares fields in place and does not allocate.
+     */
+    public boolean matches(TardimData data) {
+        if (data.getId() != id
+                || data.getFuel() != fuel
+                || data.isLocked() != locked
+                || data.isInFlight() != inFlight
+                || data.getTimeEnteredFlight() != timeEnteredFlight
+                || !Objects.equals(data.getOwnerName(), ownerName)
+                || !Objects.equals(data.getOwner(), owner)) {
+            return false;
+        }
+
+        Location current = data.getCurrentLocation();
+        if (current == null || !sameLocation(current, currentLevel, currentPos, currentFacing)) {
+            return false;
+        }
+
+        Location travel = data.getTravelLocation();
+        if (travel == null ? travelPos != null : !sameLocation(travel, travelLevel, travelPos, travelFacing)) {
+            return false;
+        }
+
+        List<TardimData.Companion> dataCompanions = data.getCompanions();
+        if (dataCompanions.size() != companions.size()) {
+            return false;
+        }
+        for (int i = 0; i < companions.size(); i++) {
+            if (!Objects.equals(dataCompanions.get(i).getUsername(), companions.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameLocation(Location loc, ResourceKey<Level> level, BlockPos pos, Direction facing) {
+        return loc.getLevel() == level && loc.getFacing() == facing && loc.getPos().equals(pos);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getFuel() {
+        return fuel;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public boolean isInFlight() {
+        return inFlight;
+    }
+
+    public long getTimeEnteredFlight() {
+        return timeEnteredFlight;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    @Nullable
+    public UUID getOwner() {
+        return owner;
+    }
+
+    public List<String> getCompanions() {
+        return companions;
+    }
+
+    public ResourceKey<Level> getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public BlockPos getCurrentPos() {
+        return currentPos;
+    }
+
+    public Direction getCurrentFacing() {
+        return currentFacing;
+    }
+
+    public boolean hasTravelLocation() {
+        return travelPos != null;
+    }
+
+    /**
+     * Gets the destination dimension, falling back to the current one if no destination is set.
+     */
+    public ResourceKey<Level> getTravelLevel() {
+        return travelPos == null ? currentLevel : travelLevel;
+    }
+
+    /**
+     * Gets the destination position, falling back to the current one if no destination is set.
+     */
+    public BlockPos getTravelPos() {
+        return travelPos == null ? currentPos : travelPos;
+    }
+
+    /**
+     * Gets the destination facing, falling back to the current one if no destination is set.
+     */
+    public Direction getTravelFacing() {
+        return travelPos == null ? currentFacing : travelFacing;
+    }
+
+    /**
+     * Gets the current location as a Lua table.
+     */
+    public ObjectLuaTable getCurrentLocationTable() {
+        ObjectLuaTable table = currentLocationTable;
+        if (table == null) {
+            currentLocationTable = table = locationTable(currentLevel, currentPos, currentFacing);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the destination as a Lua table, or the current location if no destination is set.
+     */
+    public ObjectLuaTable getTravelLocationTable() {
+        if (travelPos == null) {
+            return getCurrentLocationTable();
+        }
+
+        ObjectLuaTable table = travelLocationTable;
+        if (table == null) {
+            travelLocationTable = table = locationTable(travelLevel, travelPos, travelFacing);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the companions' usernames as a Lua list.
+     */
+    public ObjectLuaTable getCompanionsTable() {
+        ObjectLuaTable table = companionsTable;
+        if (table == null) {
+            Map.Entry<?, ?>[] entries = new Map.Entry<?, ?>[companions.size()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = Map.entry(i + 1, companions.get(i));
+            }
+            companionsTable = table = new ObjectLuaTable(Map.ofEntries(entries));
+        }
+        return table;
+    }
+
+    private static ObjectLuaTable locationTable(ResourceKey<Level> level, BlockPos pos, Direction facing) {
+        return new ObjectLuaTable(Map.of(
+            "dimension", level.location().toString(),
+            "pos", new ObjectLuaTable(Map.of(
+                "x", pos.getX(),
+                "y", pos.getY(),
+                "z", pos.getZ()
+            )),
+            "facing", facing.toString()
+        ));
+    }
+}
@@ -0,0 +1,87 @@
+package dev.xylopia.sionacs.integration.tardim;
+
+import dan200.computercraft.api.peripheral.AttachedComputerSet;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Turns changes between TARDIM snapshots into computer events, so scripts can
+ * {@code os.pullEvent} instead of polling the getters.
+ * One instance is kept per peripheral block entity and updated once per tick,
+ * which coalesces any number of changes within a tick into at most one event of each type.
+ */
+public class TardimStateEvents {
+    public static final String TAKEOFF = "tardim_takeoff";
+    public static final String LANDING = "tardim_landing";
+    public static final String FUEL = "tardim_fuel";
+    public static final String LOCK = "tardim_lock";
+    public static final String DESTINATION = "tardim_destination";
+
+    // Fuel has to move this far from the last reported level before another event is sent
+    private static final double FUEL_HYSTERESIS = 1.0;
+
+    @Nullable private TardimSnapshot last = null;
+    private double reportedFuel = Double.NaN;
+
+    /**
+     * Compares the given snapshot with the previous one and queues events for anything that changed.
+     *
+     * @param current   The latest snapshot, or null if the peripheral is not in a valid TARDIM
+     * @param computers The computers to notify
+     */
+    public void update(@Nullable TardimSnapshot current, AttachedComputerSet computers) {
+        TardimSnapshot previous = last;
+        if (current == previous) {
+            return;
+        }
+        last = current;
+
+        // Only diff between two snapshots of the same TARDIM
+        if (current == null || previous == null || current.getId() != previous.getId()) {
+            reportedFuel = current == null ? Double.NaN : current.getFuel();
+            return;
+        }
+
+        if (!computers.hasComputers()) {
+            reportedFuel = current.getFuel();
+            return;
+        }
+
+        int id = current.getId();
+
+        if (!previous.isInFlight() && current.isInFlight()) {
+            computers.queueEvent(TAKEOFF, id);
+        } else if (previous.isInFlight() && !current.isInFlight()) {
+            computers.queueEvent(LANDING, id, current.getCurrentLocationTable());
+        }
+
+        if (previous.isLocked() != current.isLocked()) {
+            computers.queueEvent(LOCK, id, current.isLocked());
+        }
+
+        if (current.hasTravelLocation() && destinationChanged(previous, current)) {
+            computers.queueEvent(DESTINATION, id, current.getTravelLocationTable());
+        }
+
+        double fuel = current.getFuel();
+        if (fuelChanged(fuel)) {
+            computers.queueEvent(FUEL, id, fuel, reportedFuel);
+            reportedFuel = fuel;
+        }
+    }
+
+    private boolean fuelChanged(double fuel) {
+        if (fuel == reportedFuel) {
+            return false;
+        }
+
+        // Always report reaching empty or full, even inside the hysteresis band
+        return Math.abs(fuel - reportedFuel) >= FUEL_HYSTERESIS || fuel <= 0.0 || fuel >= 100.0;
+    }
+
+    private static boolean destinationChanged(TardimSnapshot previous, TardimSnapshot current) {
+        return !previous.hasTravelLocation()
+                || previous.getTravelLevel() != current.getTravelLevel()
+                || previous.getTravelFacing() != current.getTravelFacing()
+                || !previous.getTravelPos().equals(current.getTravelPos());
+    }
+}
@@ -1,8 +1,9 @@
 package dev.xylopia.sionacs.integration.tardim.cc_api;
 
 // Java imports
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,19 +13,17 @@ import com.mojang.datafixers.util.Pair;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Holder;
-import net.minecraft.core.Registry;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.players.PlayerList;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.levelgen.Heightmap;
-import net.minecraft.world.phys.Vec3;
 
 // Tardim imports - corrected paths for public version
 import com.swdteam.common.command.tardim.CommandTravel;
@@ -39,11 +38,31 @@ import com.swdteam.main.Tardim;
 // ComputerCraft imports
 import dan200.computercraft.api.lua.LuaException;
 import dan200.computercraft.api.lua.LuaFunction;
+import dan200.computercraft.api.lua.ObjectArguments;
 import dan200.computercraft.api.lua.ObjectLuaTable;
 
 // SionaCS imports
-import dev.xylopia.sionacs.integration.tardim.peripheral.TardimPeripheralBlockEntity;
+import dev.xylopia.sionacs.integration.computercraft.TardimCost;
+import dev.xylopia.sionacs.integration.computercraft.TardimGovernor;
+import dev.xylopia.sionacs.integration.computercraft.TardimMethodTable;
+import dev.xylopia.sionacs.integration.computercraft.TardimMetrics;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.integration.tardim.TardimListings;
+import dev.xylopia.sionacs.integration.tardim.TardimPersistence;
+import dev.xylopia.sionacs.integration.tardim.TardimSnapshot;
+import dev.xylopia.sionacs.integration.tardim.fleet.TardimFleet;
+import dev.xylopia.sionacs.integration.tardim.landing.DestinationPrewarmer;
+import dev.xylopia.sionacs.integration.tardim.landing.LandingSearchStats;
+import dev.xylopia.sionacs.integration.tardim.landing.LandingSiteSearch;
+import dev.xylopia.sionacs.integration.tardim.route.RoutePlanner;
+import dev.xylopia.sionacs.integration.tardim.scheduler.TardimActionScheduler;
+import dev.xylopia.sionacs.integration.tardim.waypoint.Waypoint;
+import dev.xylopia.sionacs.integration.tardim.waypoint.WaypointBook;
+import dev.xylopia.sionacs.integration.tardim.waypoint.WaypointIndex;
+import dev.xylopia.sionacs.integration.tardim.waypoint.WaypointStore;
 import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,10 +73,32 @@ import org.slf4j.LoggerFactory;
 public class TardimAPI {
     @SuppressWarnings("unused")
     private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimAPI");
-    private final TardimPeripheralBlockEntity blockEntity;
+    private final TardimHost host;
 
-    public TardimAPI(TardimPeripheralBlockEntity blockEntity) {
-        this.blockEntity = blockEntity;
+    /**
+     * Error thrown by remat while the TARDIM is still in its takeoff period.
+     */
+    public static final String STILL_TAKING_OFF = "TARDIM is still taking off";
+
+    /**
+     * Error thrown by remat while the destination is still being loaded.
+     */
+    public static final String DESTINATION_NOT_READY = "Destination not ready";
+
+    // Seconds after takeoff before the TARDIM can land again
+    private static final long TAKEOFF_SECONDS = 10L;
+
+    // Page size for registry searches when the script doesn't give one
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Most waypoints returned by one query
+    private static final int MAX_WAYPOINT_RESULTS = 256;
+
+    // Statistics from this peripheral's most recent landing-site search
+    @Nullable private volatile LandingSearchStats lastLandingStats = null;
+
+    public TardimAPI(TardimHost host) {
+        this.host = host;
     }
 
     /**
@@ -66,7 +107,7 @@ public class TardimAPI {
      * @throws LuaException If the peripheral is not in a valid TARDIM
      */
     private TardimData getTardimData() throws LuaException {
-        TardimData data = blockEntity.getTardimData();
+        TardimData data = host.getTardimData();
         
         // Check if we have TARDIM data at all
         if (data == null) {
@@ -80,13 +121,26 @@ public class TardimAPI {
         return data;
     }
 
+    /**
+     * Gets the latest published snapshot of the TARDIM state.
+     * @return The snapshot
+     * @throws LuaException If the peripheral is not in a valid TARDIM
+     */
+    private TardimSnapshot getSnapshot() throws LuaException {
+        TardimSnapshot snapshot = host.getSnapshot();
+        if (snapshot == null) {
+            throw new LuaException("Peripheral is not inside a valid TARDIM");
+        }
+        return snapshot;
+    }
+
     /**
      * Gets the server level this peripheral is in.
      * @return The server level
      * @throws LuaException If the level is not available or is client-side
      */
     private ServerLevel getServerLevel() throws LuaException {
-        Level level = blockEntity.getLevel();
+        Level level = host.getLevel();
         if (level == null || level.isClientSide()) {
             throw new LuaException("Cannot access server level");
         }
@@ -94,136 +148,98 @@ public class TardimAPI {
     }
 
     // === INFORMATION METHODS ===
+    // These are served from the block entity's published snapshot, so they run on the
+    // computer thread without waiting for the server tick.
 
     /**
      * Return how much fuel is left in the TARDIM
      *
      * @return Fuel left (Out of 100)
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final double getFuel() throws LuaException {
-        return getTardimData().getFuel();
+        return getSnapshot().getFuel();
     }
 
     /**
      * Get how much fuel it would take to travel to the destination
      * @return Amount of fuel needed (Out of 100)
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final double calculateFuelForJourney() throws LuaException {
-        TardimData data = getTardimData();
-
-        if (data.getTravelLocation() == null) return 0;
-
-        Location curr = data.getCurrentLocation();
-        Location dest = data.getTravelLocation();
+        TardimSnapshot snapshot = getSnapshot();
 
-        double fuel = 0.0;
+        if (!snapshot.hasTravelLocation()) return 0;
 
-        if (!curr.getLevel().equals(dest.getLevel())) {
-            fuel = 10.0;
-        }
-
-        Vec3 posA = new Vec3(curr.getPos().getX(), curr.getPos().getY(), curr.getPos().getZ());
-        Vec3 posB = new Vec3(dest.getPos().getX(), dest.getPos().getY(), dest.getPos().getZ());
-        fuel += posA.distanceTo(posB) / 100.0;
-        if (fuel > 100.0) fuel = 100.0;
-
-        return fuel;
+        return RoutePlanner.journeyFuel(snapshot.getCurrentLevel(), snapshot.getCurrentPos(),
+                snapshot.getTravelLevel(), snapshot.getTravelPos());
     }
 
     /**
      * Check whether the TARDIM is locked
      * @return true if locked, false if not
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final boolean isLocked() throws LuaException {
-        return getTardimData().isLocked();
+        return getSnapshot().isLocked();
     }
 
     /**
      * Check whether the TARDIM is in flight
      * @return true if in flight, false if not
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final boolean isInFlight() throws LuaException { 
-        return getTardimData().isInFlight(); 
+        return getSnapshot().isInFlight(); 
     }
 
     /**
      * Gets timestamp of when we entered flight
      * @return Timestamp if in flight, -1 if not
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final long getTimeEnteredFlight() throws LuaException {
-        TardimData data = getTardimData();
-        if (!data.isInFlight()) {
+        TardimSnapshot snapshot = getSnapshot();
+        if (!snapshot.isInFlight()) {
             return -1;
         }
-        return data.getTimeEnteredFlight();
+        return snapshot.getTimeEnteredFlight();
     }
 
     /**
      * Get username of the TARDIM's owner
      * @return String of the owner's username
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final String getOwnerName() throws LuaException {
-        return getTardimData().getOwnerName();
+        return getSnapshot().getOwnerName();
     }
 
     /**
      * Get the current location of the TARDIM
      * @return Table of the current location with dimension, position, and facing
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final ObjectLuaTable getCurrentLocation() throws LuaException {
-        Location loc = getTardimData().getCurrentLocation();
-        return new ObjectLuaTable(Map.of(
-            "dimension", loc.getLevel().location().toString(),
-            "pos", new ObjectLuaTable(Map.of(
-                "x", loc.getPos().getX(),
-                "y", loc.getPos().getY(),
-                "z", loc.getPos().getZ()
-            )),
-            "facing", loc.getFacing().toString()
-        ));
+        return getSnapshot().getCurrentLocationTable();
     }
 
     /**
      * Get the destination location of the TARDIM
-     * @return Table of the destination or null if no destination
+     * @return Table of the destination, or of the current location if no destination is set
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final ObjectLuaTable getTravelLocation() throws LuaException {
-        TardimData data = getTardimData();
-        if (data.getTravelLocation() == null) {
-            data.setTravelLocation(new Location(data.getCurrentLocation()));
-        }
-        Location loc = data.getTravelLocation();
-        return new ObjectLuaTable(Map.of(
-            "dimension", loc.getLevel().location().toString(),
-            "pos", new ObjectLuaTable(Map.of(
-                "x", loc.getPos().getX(),
-                "y", loc.getPos().getY(),
-                "z", loc.getPos().getZ()
-            )),
-            "facing", loc.getFacing().toString()
-        ));
+        return getSnapshot().getTravelLocationTable();
     }
 
     /**
      * Get list of the TARDIM owner's companions
      * @return Table containing the usernames of the companions
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final ObjectLuaTable getCompanions() throws LuaException {
-        TardimData data = getTardimData();
-        Map<Integer, String> companions = new HashMap<>();
-        for (int i = 0; i < data.getCompanions().size(); i++) {
-            companions.put(i + 1, data.getCompanions().get(i).getUsername());
-        }
-        return new ObjectLuaTable(companions);
+        return getSnapshot().getCompanionsTable();
     }
 
     // === CONTROL METHODS ===
@@ -244,28 +260,13 @@ public class TardimAPI {
     @LuaFunction(mainThread = true)
     public final void setDimension(String dimension) throws LuaException {
         TardimData data = getTardimData();
-
-        // Try to resolve dimension name variations using CommandTravel's method
-        String key = dimension;
-        dimension = toTitleCase(dimension);
-        if (TardimManager.DIMENSION_MAP.containsKey(dimension)) {
-            key = TardimManager.DIMENSION_MAP.get(dimension);
-        } else {
-            dimension = dimension.toLowerCase();
-        }
-
-        // Validate the dimension path using CommandTravel's method
-        if (!CommandTravel.isValidPath(key)) {
-            throw new LuaException("Invalid dimension format");
-        }
-        
-        @SuppressWarnings("removal")
-        ResourceKey<Level> dim = ResourceKey.create(Registries.DIMENSION, new ResourceLocation(dimension));
+        ResourceKey<Level> dim = resolveDimension(dimension);
         if (data.getTravelLocation() == null) {
             data.setTravelLocation(new Location(data.getCurrentLocation()));
         }
 
         data.getTravelLocation().setLocation(dim);
+        DestinationPrewarmer.request(data);
     }
 
     /**
@@ -282,6 +283,7 @@ public class TardimAPI {
         }
 
         data.getTravelLocation().setPosition(x, y, z);
+        DestinationPrewarmer.request(data);
     }
 
     /**
@@ -303,22 +305,16 @@ public class TardimAPI {
             default -> throw new LuaException("Invalid door rotation. Must be north, east, south, or west");
         }
 
-        data.save();
+        TardimPersistence.markDirty(data);
     }
 
     /**
      * Get the rotation of the TARDIM's door
      * @return String of the door rotation ("north", "south", "east", "west")
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final String getDoorRotation() throws LuaException {
-        TardimData data = getTardimData();
-        if (data.getTravelLocation() == null) {
-            return data.getCurrentLocation().getFacing().toString().toLowerCase();
-        }
-        
-        Direction rotation = data.getTravelLocation().getFacing();
-        return rotation.toString().toLowerCase();
+        return getSnapshot().getTravelFacing().toString().toLowerCase();
     }
 
     /**
@@ -347,7 +343,7 @@ public class TardimAPI {
         }
         
         data.getTravelLocation().setFacing(newFacing);
-        data.save();
+        TardimPersistence.markDirty(data);
     }
 
     // === TRAVEL METHODS ===
@@ -356,17 +352,29 @@ public class TardimAPI {
      * Dematerialize the TARDIM (take off)
      */
     @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.MODERATE)
     public final void demat() throws LuaException {
         ServerLevel level = getServerLevel();
-        TardimData data = getTardimData();
+        dematerialize(level.getServer(), getTardimData());
 
+        // Play takeoff sound - updated for public version
+        level.playSound(null, host.getBlockPos(), TRDSounds.TARDIM_TAKEOFF.get(), SoundSource.AMBIENT, 1.0F, 1.0F);
+    }
+
+    /**
+     * Takes off, removing the TARDIM's exterior. Shared with fleet commands.
+     * Must be called on the server thread.
+     * @return The level the exterior was in
+     * @throws LuaException If the TARDIM is already in flight or its level isn't loaded
+     */
+    public static ServerLevel dematerialize(MinecraftServer server, TardimData data) throws LuaException {
         if (data.isInFlight()) {
             throw new LuaException("TARDIM is already in flight");
         }
         
         Location loc = data.getCurrentLocation();
         @SuppressWarnings("unchecked")
-        ServerLevel currentLevel = level.getServer().getLevel(loc.getLevel());
+        ServerLevel currentLevel = server.getLevel(loc.getLevel());
         if (currentLevel == null) {
             throw new LuaException("Cannot access TARDIM's current dimension");
         }
@@ -379,16 +387,15 @@ public class TardimAPI {
         }
         
         data.setTimeEnteredFlight(); // Set the takeoff time
-        
-        // Play takeoff sound - updated for public version
-        level.playSound(null, blockEntity.getBlockPos(), TRDSounds.TARDIM_TAKEOFF.get(), SoundSource.AMBIENT, 1.0F, 1.0F);
-        data.save();
+        TardimPersistence.markDirty(data);
+        return currentLevel;
     }
 
     /**
      * Materialize the TARDIM at the destination (land)
      */
     @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.EXPENSIVE)
     public final void remat() throws LuaException {
         ServerLevel level = getServerLevel();
         TardimData data = getTardimData();
@@ -398,8 +405,8 @@ public class TardimAPI {
         }
         
         // Check if enough time has passed since takeoff (10 seconds)
-        if (data.getTimeEnteredFlight() >= System.currentTimeMillis() / 1000L - 10L) {
-            throw new LuaException("TARDIM is still taking off");
+        if (data.getTimeEnteredFlight() >= System.currentTimeMillis() / 1000L - TAKEOFF_SECONDS) {
+            throw new LuaException(STILL_TAKING_OFF);
         }
         
         Location loc = data.getTravelLocation();
@@ -426,24 +433,24 @@ public class TardimAPI {
             throw new LuaException("Not enough fuel for journey");
         }
 
+        // Never load the destination synchronously; it should already be prewarmed
+        if (!DestinationPrewarmer.isReady(destinationLevel, loc.getPos())) {
+            DestinationPrewarmer.prewarm(data.getId(), destinationLevel, loc.getPos());
+            throw new LuaException(DESTINATION_NOT_READY);
+        }
+
         // Find suitable landing location
-        destinationLevel.getChunk(loc.getPos());
-        BlockPos landingPos = CommandTravel.getLandingPosition(destinationLevel, loc.getPos());
-        @SuppressWarnings("unused")
-        boolean landingRecalculated = findSuitableLandingSpot(destinationLevel, landingPos);
-        
-        // Check if we found a valid landing position
-        if (!Block.canSupportRigidBlock(destinationLevel, landingPos.below())) {
+        LandingSiteSearch.Result landing = LandingSiteSearch.search(destinationLevel, loc.getPos(),
+                SionaConfig.COMMON.landingSearchRadius.get(), SionaConfig.COMMON.landingSearchChunkBudget.get());
+        lastLandingStats = landing.getStats();
+
+        BlockPos landingPos = landing.getPos();
+        if (landingPos == null) {
             throw new LuaException("Could not find suitable landing location");
         }
         
         loc.setPosition(landingPos.getX(), landingPos.getY(), landingPos.getZ());
         
-        // Check if landing spot is clear - using public version's method
-        if (!Tardim.isPosValid(destinationLevel, loc.getPos())) {
-            throw new LuaException("TARDIM landing obstructed");
-        }
-        
         // Land the TARDIS
         TardimRegistry.TardimBuilder builder = TardimRegistry.getTardimBuilder(data.getTardimID());
         builder.buildTardim(destinationLevel, loc.getPos(), loc.getFacing(), data.getId());
@@ -451,10 +458,11 @@ public class TardimAPI {
         data.setTravelLocation(null);
         data.setInFlight(false);
         data.addFuel(-fuel);
+        DestinationPrewarmer.release(level.getServer(), data.getId());
         
         // Play landing sound - updated for public version
-        level.playSound(null, blockEntity.getBlockPos(), TRDSounds.TARDIM_LANDING.get(), SoundSource.AMBIENT, 1.0F, 1.0F);
-        data.save();
+        level.playSound(null, host.getBlockPos(), TRDSounds.TARDIM_LANDING.get(), SoundSource.AMBIENT, 1.0F, 1.0F);
+        TardimPersistence.markDirty(data);
     }
 
     /**
@@ -513,6 +521,7 @@ public class TardimAPI {
      * @param biome_str String of the biome e.g. "minecraft:plains"
      */
     @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.EXPENSIVE)
     public final void locateBiome(String biome_str) throws LuaException {
         ServerLevel level = getServerLevel();
         TardimData data = getTardimData();
@@ -549,7 +558,8 @@ public class TardimAPI {
         }
         
         data.getTravelLocation().setPosition(biomePos.getX(), biomePos.getY(), biomePos.getZ());
-        data.save();
+        DestinationPrewarmer.request(data);
+        TardimPersistence.markDirty(data);
     }
 
     /**
@@ -570,6 +580,38 @@ public class TardimAPI {
             case "z" -> data.getTravelLocation().addPosition(0, 0, amount);
             default -> throw new LuaException("Invalid axis. Must be x, y, or z");
         }
+        DestinationPrewarmer.request(data);
+    }
+
+    /**
+     * Get statistics from the last landing-site search made by remat
+     * @return Table of search statistics, or nil if this peripheral has not landed yet
+     */
+    @LuaFunction
+    public final ObjectLuaTable getLandingStats() {
+        LandingSearchStats stats = lastLandingStats;
+        return stats == null ? null : stats.toLuaTable();
+    }
+
+    /**
+     * Get call counts and timings for this peripheral type's methods, across all computers
+     * Only recorded while enableTardimMetrics is set in the config
+     * Read only: the metrics can only be reset by operators, with /sionacs stats reset
+     * @return Table of metrics
+     */
+    @LuaFunction
+    public final ObjectLuaTable getStats() {
+        return TardimMetrics.toLuaTable();
+    }
+
+    /**
+     * Get the state of the governor which holds back expensive calls while the server is behind
+     * @return Table with state ("normal", "strained" or "overloaded"), mspt, the thresholds,
+     *         and counts of rejected and expired calls
+     */
+    @LuaFunction
+    public final ObjectLuaTable getGovernorState() {
+        return TardimGovernor.toLuaTable();
     }
 
     // === INFORMATION GATHERING METHODS ===
@@ -595,91 +637,451 @@ public class TardimAPI {
      * Get all available TARDIM skins
      * @return Table of the available skins
      */
-    @LuaFunction(mainThread = true)
-    public final ObjectLuaTable getSkins() throws LuaException {
-        Map<Integer, String> skins = new HashMap<>();
-        Iterator<ResourceLocation> iterator = TardimRegistry.getRegistry().keySet().iterator();
-        
-        int i = 0;
-        while (iterator.hasNext()) {
-            ResourceLocation key = iterator.next();
-            TardimRegistry.TardimBuilder builder = TardimRegistry.getTardimBuilder(key);
-            skins.put(i + 1, builder.getDisplayName());
-            i++;
-        }
-
-        return new ObjectLuaTable(skins);
+    @LuaFunction
+    public final ObjectLuaTable getSkins() {
+        return TardimListings.getSkins();
     }
 
     /**
      * Get all registered biomes
      * @return Table of all biomes' technical names
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final ObjectLuaTable getBiomes() throws LuaException {
-        ServerLevel level = getServerLevel();
-        
-        Map<Integer, String> biomes = new HashMap<>();
-        Registry<Biome> biomeRegistry = level.registryAccess().registryOrThrow(Registries.BIOME);
-        Iterator<ResourceLocation> biomeIterator = biomeRegistry.keySet().iterator();
-        
-        int i = 0;
-        while (biomeIterator.hasNext()) {
-            biomes.put(i + 1, biomeIterator.next().toString());
-            i++;
-        }
-
-        return new ObjectLuaTable(biomes);
+        return TardimListings.getBiomes();
     }
 
     /**
      * Get all registered dimensions
      * @return Table of all dimensions' technical names
      */
-    @LuaFunction(mainThread = true)
+    @LuaFunction
     public final ObjectLuaTable getDimensions() throws LuaException {
-        ServerLevel level = getServerLevel();
-        
-        Map<Integer, String> dimensions = new HashMap<>();
-        Iterator<ServerLevel> dimIterator = level.getServer().getAllLevels().iterator();
-        
-        int i = 0;
-        while (dimIterator.hasNext()) {
-            dimensions.put(i + 1, dimIterator.next().dimension().location().toString());
-            i++;
+        return TardimListings.getDimensions();
+    }
+
+    /**
+     * Search the registered biomes, a page at a time
+     * @param query  Prefix of the namespace, path or whole ID (e.g. "mine", "pla", "minecraft:pla"),
+     *               or a pattern using * and ? (e.g. "*ocean")
+     * @param offset Number of matches to skip (default 0)
+     * @param limit  Largest number of IDs to return (default 50)
+     * @return Table of matching biome IDs, in alphabetical order
+     */
+    @LuaFunction
+    public final ObjectLuaTable findBiomes(String query, Optional<Integer> offset, Optional<Integer> limit) throws LuaException {
+        return TardimListings.getBiomeIndex().page(query, offset.orElse(0), limit.orElse(DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Count the registered biomes matching a query
+     * @param query Prefix or pattern, as for findBiomes
+     * @return Number of matching biomes
+     */
+    @LuaFunction
+    public final int countBiomes(String query) throws LuaException {
+        return TardimListings.getBiomeIndex().count(query);
+    }
+
+    /**
+     * Search the loaded dimensions, a page at a time
+     * @param query  Prefix or pattern, as for findBiomes
+     * @param offset Number of matches to skip (default 0)
+     * @param limit  Largest number of IDs to return (default 50)
+     * @return Table of matching dimension IDs, in alphabetical order
+     */
+    @LuaFunction
+    public final ObjectLuaTable findDimensions(String query, Optional<Integer> offset, Optional<Integer> limit) throws LuaException {
+        return TardimListings.getDimensionIndex().page(query, offset.orElse(0), limit.orElse(DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Count the loaded dimensions matching a query
+     * @param query Prefix or pattern, as for findBiomes
+     * @return Number of matching dimensions
+     */
+    @LuaFunction
+    public final int countDimensions(String query) throws LuaException {
+        return TardimListings.getDimensionIndex().count(query);
+    }
+
+    // === SCHEDULED ACTIONS ===
+    // Actions run on the server thread and report back with a
+    // tardim_action event: (id, kind, success, error)
+
+    /**
+     * Land the TARDIM as soon as its takeoff period is over
+     * @return ID of the scheduled action
+     */
+    @LuaFunction(mainThread = true)
+    public final int scheduleRemat() throws LuaException {
+        TardimData data = getTardimData();
+
+        long delay = 1;
+        if (data.isInFlight()) {
+            delay = ticksUntil((data.getTimeEnteredFlight() + TAKEOFF_SECONDS + 1) * 1000L);
         }
-        
-        return new ObjectLuaTable(dimensions);
+
+        return TardimActionScheduler.get().schedule(TardimActionScheduler.Kind.REMAT_WHEN_READY, this, host, delay);
     }
 
-    // === UTILITY METHODS ===
+    /**
+     * Land the TARDIM at a given time
+     * @param time  Time to land, in seconds since the epoch (as os.epoch("utc") / 1000)
+     * @return ID of the scheduled action
+     */
+    @LuaFunction(mainThread = true)
+    public final int scheduleRematAt(long time) throws LuaException {
+        getTardimData();
+        return TardimActionScheduler.get().schedule(TardimActionScheduler.Kind.REMAT_AT, this, host, ticksUntil(time * 1000L));
+    }
+
+    /**
+     * Lock the TARDIM after a delay
+     * @param seconds   Number of seconds to wait before locking
+     * @return ID of the scheduled action
+     */
+    @LuaFunction(mainThread = true)
+    public final int scheduleLock(double seconds) throws LuaException {
+        getTardimData();
+        if (seconds < 0) {
+            throw new LuaException("Delay cannot be negative");
+        }
+        return TardimActionScheduler.get().schedule(TardimActionScheduler.Kind.LOCK, this, host, Math.round(seconds * 20.0));
+    }
 
     /**
-     * Helper method to find a suitable landing spot
-     */
-    private boolean findSuitableLandingSpot(ServerLevel level, BlockPos landingPos) {
-        // Try three search patterns with increasing radius
-        for (int searchRadius : new int[] {10, 30, 50}) {
-            for (int attempt = 0; attempt < 32; attempt++) {
-                if (!Block.canSupportRigidBlock(level, landingPos.below())) {
-                    BlockPos testPos = landingPos.offset(
-                            level.random.nextInt(searchRadius) * (level.random.nextBoolean() ? 1 : -1),
-                            0,
-                            level.random.nextInt(searchRadius) * (level.random.nextBoolean() ? 1 : -1)
-                    );
-                    BlockPos newPos = CommandTravel.getLandingPosition(level, testPos);
-                    if (Block.canSupportRigidBlock(level, newPos.below())) {
-                        landingPos = newPos;
-                        return true;
-                    }
-                } else {
-                    return true;
+     * Cancel a scheduled action
+     * @param id    ID of the action
+     * @return true if the action was pending and has been cancelled; false if it belongs to another peripheral
+     */
+    @LuaFunction(mainThread = true)
+    public final boolean cancelScheduled(int id) throws LuaException {
+        return TardimActionScheduler.get().cancel(id, host);
+    }
+
+    // === BATCH METHODS ===
+
+    /**
+     * Run several API calls in order within a single main-thread task, stopping at the first failure.
+     * Each operation is a list of the method name followed by its arguments, e.g.
+     * {{"setDimension", "minecraft:overworld"}, {"setTravelLocation", 100, 64, 200}, {"demat"}}
+     * @param operations Table of operations
+     * @return Table with "ok", "completed", "results" and, on failure, "failed" and "error"
+     */
+    @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.MODERATE)
+    public final ObjectLuaTable batch(Map<?, ?> operations) throws LuaException {
+        int count = sequenceLength(operations);
+        if (count == 0) {
+            throw new LuaException("Expected a list of operations");
+        }
+
+        // Validate every operation before running any of them
+        int[] indices = new int[count];
+        Object[][] args = new Object[count][];
+        for (int i = 1; i <= count; i++) {
+            if (!(operations.get((double) i) instanceof Map<?, ?> operation)) {
+                throw new LuaException("Operation " + i + " is not a table");
+            }
+
+            int length = sequenceLength(operation);
+            if (length == 0 || !(operation.get(1.0) instanceof String name)) {
+                throw new LuaException("Operation " + i + " has no method name");
+            }
+
+            int index = TardimMethodTable.indexOf(name);
+            if (index < 0 || name.equals("batch")) {
+                throw new LuaException("Operation " + i + " calls unknown method " + name);
+            }
+
+            // The batch itself is queued as a moderate call, so hold back anything dearer here
+            if (TardimGovernor.isDeferred(TardimMethodTable.getCost(index))) {
+                throw new LuaException(TardimGovernor.SERVER_BUSY);
+            }
+
+            indices[i - 1] = index;
+            args[i - 1] = new Object[length - 1];
+            for (int j = 0; j < length - 1; j++) {
+                args[i - 1][j] = operation.get((double) (j + 2));
+            }
+        }
+
+        Map<Object, Object> result = new HashMap<>();
+        Map<Integer, Object> results = new HashMap<>();
+        result.put("results", new ObjectLuaTable(results));
+
+        for (int i = 1; i <= count; i++) {
+            int index = indices[i - 1];
+            try {
+                Object value = TardimMethodTable.invoke(index, this, new ObjectArguments(args[i - 1]));
+                results.put(i, value == null ? true : value);
+
+                // Getters read the snapshot, so republish after each change for later operations to see it
+                if (TardimMethodTable.isMainThread(index)) {
+                    host.publishSnapshot();
                 }
+            } catch (LuaException e) {
+                result.put("ok", false);
+                result.put("completed", i - 1);
+                result.put("failed", i);
+                result.put("error", TardimMethodTable.getName(index) + ": " + e.getMessage());
+                return new ObjectLuaTable(result);
+            }
+        }
+
+        result.put("ok", true);
+        result.put("completed", count);
+        return new ObjectLuaTable(result);
+    }
+
+    // === FLEET METHODS ===
+    // A fleet is every loaded TARDIM owned by this TARDIM's owner or listing them as a companion.
+    // Commands run a few TARDIMs per tick and report each one with a
+    // tardim_fleet event: (command id, TARDIM id, success, error)
+
+    /**
+     * Get the state of every TARDIM in this TARDIM's fleet
+     * @return Table of TARDIMs, each with id, owner, fuel, inFlight, location and destination
+     */
+    @LuaFunction(mainThread = true)
+    public final ObjectLuaTable getFleet() throws LuaException {
+        return TardimFleet.get().describe(getTardimData());
+    }
+
+    /**
+     * Set the destination of several TARDIMs in the fleet
+     * @param ids       Table of TARDIM IDs
+     * @param dimension String of the dimension e.g. "minecraft:overworld"
+     * @param x         X coordinate
+     * @param y         Y coordinate
+     * @param z         Z coordinate
+     * @return ID of the fleet command
+     */
+    @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.MODERATE)
+    public final int fleetSetDestination(Map<?, ?> ids, String dimension, int x, int y, int z) throws LuaException {
+        TardimFleet.Destination destination = new TardimFleet.Destination(resolveDimension(dimension), new BlockPos(x, y, z));
+        return TardimFleet.get().submit(TardimFleet.Command.SET_DESTINATION, getTardimData(), host, ids, destination);
+    }
+
+    /**
+     * Take off with several TARDIMs in the fleet
+     * @param ids   Table of TARDIM IDs
+     * @return ID of the fleet command
+     */
+    @LuaFunction(mainThread = true)
+    @TardimCost(TardimCost.Tier.MODERATE)
+    public final int fleetDemat(Map<?, ?> ids) throws LuaException {
+        return TardimFleet.get().submit(TardimFleet.Command.DEMAT, getTardimData(), host, ids, null);
+    }
+
+    // === WAYPOINT METHODS ===
+    // Waypoints belong to the TARDIM's owner, so every TARDIM they own shares them
+
+    /**
+     * Save a waypoint, replacing any with the same name
+     * @param name      Name of the waypoint
+     * @param dimension String of the dimension e.g. "minecraft:overworld", or nil for the TARDIM's current location
+     * @param x         X coordinate
+     * @param y         Y coordinate
+     * @param z         Z coordinate
+     */
+    @LuaFunction
+    public final void addWaypoint(String name, Optional<String> dimension, Optional<Integer> x, Optional<Integer> y, Optional<Integer> z) throws LuaException {
+        TardimSnapshot snapshot = getSnapshot();
+        Waypoint waypoint;
+        if (dimension.isPresent()) {
+            if (x.isEmpty() || y.isEmpty() || z.isEmpty()) {
+                throw new LuaException("Expected x, y and z after the dimension");
+            }
+            waypoint = new Waypoint(name, resolveDimension(dimension.get()), new BlockPos(x.get(), y.get(), z.get()));
+        } else {
+            waypoint = new Waypoint(name, snapshot.getCurrentLevel(), snapshot.getCurrentPos());
+        }
+        getWaypoints(snapshot).put(waypoint);
+    }
+
+    /**
+     * Delete a waypoint
+     * @param name Name of the waypoint
+     * @return true if the waypoint existed
+     */
+    @LuaFunction
+    public final boolean removeWaypoint(String name) throws LuaException {
+        return getWaypoints(getSnapshot()).remove(name);
+    }
+
+    /**
+     * Get a waypoint by name
+     * @param name Name of the waypoint
+     * @return Table with name, dimension, x, y and z, or nil if there is no such waypoint
+     */
+    @LuaFunction
+    public final ObjectLuaTable getWaypoint(String name) throws LuaException {
+        Waypoint waypoint = getWaypoints(getSnapshot()).get(name);
+        return waypoint == null ? null : waypoint.toLuaTable(-1);
+    }
+
+    /**
+     * Find the waypoints closest to the TARDIM, in its current dimension
+     * @param count Largest number of waypoints to return
+     * @return Table of waypoints, closest first, each with name, dimension, x, y, z and distance
+     */
+    @LuaFunction
+    public final ObjectLuaTable nearestWaypoints(int count) throws LuaException {
+        if (count < 1 || count > MAX_WAYPOINT_RESULTS) {
+            throw new LuaException("Count must be between 1 and " + MAX_WAYPOINT_RESULTS);
+        }
+
+        TardimSnapshot snapshot = getSnapshot();
+        return toLuaTable(getWaypoints(snapshot).nearest(snapshot.getCurrentLevel(), snapshot.getCurrentPos(), count));
+    }
+
+    /**
+     * Find the waypoints within a distance of the TARDIM, in its current dimension
+     * @param radius Distance in blocks
+     * @return Table of waypoints, closest first, each with name, dimension, x, y, z and distance
+     */
+    @LuaFunction
+    public final ObjectLuaTable waypointsInRadius(double radius) throws LuaException {
+        if (!(radius >= 0)) {
+            throw new LuaException("Radius must not be negative");
+        }
+
+        TardimSnapshot snapshot = getSnapshot();
+        return toLuaTable(getWaypoints(snapshot).inRadius(snapshot.getCurrentLevel(), snapshot.getCurrentPos(), radius));
+    }
+
+    /**
+     * Set the destination to a saved waypoint
+     * @param name Name of the waypoint
+     */
+    @LuaFunction(mainThread = true)
+    public final void travelToWaypoint(String name) throws LuaException {
+        Waypoint waypoint = getWaypoints(getSnapshot()).get(name);
+        if (waypoint == null) {
+            throw new LuaException("No waypoint named " + name);
+        }
+
+        TardimData data = getTardimData();
+        if (data.getTravelLocation() == null) {
+            data.setTravelLocation(new Location(data.getCurrentLocation()));
+        }
+
+        data.getTravelLocation().setLocation(waypoint.level());
+        data.getTravelLocation().setPosition(waypoint.pos().getX(), waypoint.pos().getY(), waypoint.pos().getZ());
+        DestinationPrewarmer.request(data);
+    }
+
+    private static WaypointBook getWaypoints(TardimSnapshot snapshot) throws LuaException {
+        UUID owner = snapshot.getOwner();
+        if (owner == null) {
+            throw new LuaException("TARDIM has no owner");
+        }
+        return WaypointStore.get().getBook(owner);
+    }
+
+    private static ObjectLuaTable toLuaTable(List<WaypointIndex.Match> matches) {
+        Map<Integer, Object> table = new HashMap<>();
+        int count = Math.min(matches.size(), MAX_WAYPOINT_RESULTS);
+        for (int i = 0; i < count; i++) {
+            WaypointIndex.Match match = matches.get(i);
+            table.put(i + 1, match.waypoint().toLuaTable(Math.sqrt(match.distanceSqr())));
+        }
+        return new ObjectLuaTable(table);
+    }
+
+    // === ROUTE METHODS ===
+    // Routes are searched in the background and reported with a
+    // tardim_route event: (route id, success, route or error)
+
+    /**
+     * Plan a journey through refuelling stops, using the same fuel costs as calculateFuelForJourney
+     * The TARDIM is assumed to refuel to full at every stop on the route
+     * @param dimension String of the destination's dimension e.g. "minecraft:overworld"
+     * @param x         X coordinate
+     * @param y         Y coordinate
+     * @param z         Z coordinate
+     * @param waypoints Table of refuelling stops, each with dimension, x, y, z and optionally name
+     * @param mode      "fuel" to use the least fuel (the default) or "hops" for the fewest stops
+     * @return ID of the route search. The route is a table with fuel and hops, each hop having
+     *         dimension, x, y, z, fuel, refuel and name if the waypoint had one
+     */
+    @LuaFunction
+    public final int planRoute(String dimension, int x, int y, int z, Map<?, ?> waypoints, Optional<String> mode) throws LuaException {
+        RoutePlanner.Mode routeMode = RoutePlanner.Mode.fromName(mode.orElse("fuel"));
+        TardimSnapshot snapshot = getSnapshot();
+        RoutePlanner.Waypoint start = new RoutePlanner.Waypoint(null, snapshot.getCurrentLevel(), snapshot.getCurrentPos());
+        RoutePlanner.Waypoint destination = new RoutePlanner.Waypoint(null, resolveDimension(dimension), new BlockPos(x, y, z));
+
+        int count = sequenceLength(waypoints);
+        if (count > RoutePlanner.MAX_WAYPOINTS) {
+            throw new LuaException("Too many waypoints (at most " + RoutePlanner.MAX_WAYPOINTS + ")");
+        }
+
+        List<RoutePlanner.Waypoint> stops = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            if (!(waypoints.get((double) i) instanceof Map<?, ?> waypoint)
+                    || !(waypoint.get("dimension") instanceof String stopDimension)
+                    || !(waypoint.get("x") instanceof Number stopX)
+                    || !(waypoint.get("y") instanceof Number stopY)
+                    || !(waypoint.get("z") instanceof Number stopZ)) {
+                throw new LuaException("Waypoint " + i + " needs a dimension, x, y and z");
             }
+
+            String name = waypoint.get("name") instanceof String label ? label : null;
+            BlockPos pos = new BlockPos(stopX.intValue(), stopY.intValue(), stopZ.intValue());
+            stops.add(new RoutePlanner.Waypoint(name, resolveDimension(stopDimension), pos));
+        }
+
+        return RoutePlanner.get().submit(host, start, snapshot.getFuel(), destination, stops, routeMode);
+    }
+
+    // === UTILITY METHODS ===
+
+    /**
+     * Resolves a dimension name, accepting TARDIM's friendly names as well as IDs
+     */
+    private ResourceKey<Level> resolveDimension(String dimension) throws LuaException {
+        // Try to resolve dimension name variations using CommandTravel's method
+        String key = dimension;
+        dimension = toTitleCase(dimension);
+        if (TardimManager.DIMENSION_MAP.containsKey(dimension)) {
+            key = TardimManager.DIMENSION_MAP.get(dimension);
+        } else {
+            dimension = dimension.toLowerCase();
+        }
+
+        // Validate the dimension path using CommandTravel's method
+        if (!CommandTravel.isValidPath(key)) {
+            throw new LuaException("Invalid dimension format");
         }
-        return false;
+        
+        @SuppressWarnings("removal")
+        ResourceKey<Level> dim = ResourceKey.create(Registries.DIMENSION, new ResourceLocation(dimension));
+        return dim;
     }
-    
+
+    /**
+     * Converts a wall-clock time into a delay in server ticks
+     */
+    private static long ticksUntil(long epochMillis) {
+        long millis = epochMillis - System.currentTimeMillis();
+        return Math.max(1, (millis + 49) / 50);
+    }
+
+    /**
+     * Gets the length of the sequence part of a Lua table (keys 1..n)
+     */
+    private static int sequenceLength(Map<?, ?> table) {
+        int length = 0;
+        while (table.containsKey((double) (length + 1))) {
+            length++;
+        }
+        return length;
+    }
+
     /**
      * Checks if a position is valid for TARDIM placement - using public version's method
      */
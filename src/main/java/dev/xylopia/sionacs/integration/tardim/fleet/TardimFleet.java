@@ -0,0 +1,280 @@
+package dev.xylopia.sionacs.integration.tardim.fleet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.swdteam.common.init.TRDSounds;
+import com.swdteam.tardim.TardimData;
+import com.swdteam.tardim.TardimData.Location;
+import com.swdteam.tardim.TardimManager;
+
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.integration.tardim.TardimPersistence;
+import dev.xylopia.sionacs.integration.tardim.TardimSnapshot;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+import dev.xylopia.sionacs.integration.tardim.landing.DestinationPrewarmer;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Monitors and commands every TARDIM a player can fly, from a single peripheral.
+ *
+ * A peripheral's fleet is every loaded TARDIM owned by its own TARDIM's owner, or listing that
+ * owner as a companion. Bulk commands are checked up front, then queued and run on the server
+ * thread a few TARDIMs per tick, reporting each TARDIM's outcome to the peripheral's computers as
+ * a {@code tardim_fleet} event. Each TARDIM is checked again when its turn comes, in case it has
+ * left the fleet while waiting. One fleet queue exists per running server.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class TardimFleet {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimFleet");
+
+    public static final String EVENT = "tardim_fleet";
+
+    // Largest number of TARDIMs in one command, and of TARDIMs waiting across all commands
+    private static final int MAX_IDS = 64;
+    private static final int MAX_PENDING = 1024;
+
+    @Nullable private static TardimFleet instance = null;
+
+    private final MinecraftServer server;
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private int nextId = 1;
+
+    private TardimFleet(MinecraftServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Gets the fleet queue for the running server.
+     * @throws LuaException If no server is running
+     */
+    public static TardimFleet get() throws LuaException {
+        TardimFleet fleet = instance;
+        if (fleet == null) {
+            throw new LuaException("Fleet control is not running");
+        }
+        return fleet;
+    }
+
+    /**
+     * Describes every TARDIM in a fleet, ordered by ID. Must be called on the server thread.
+     *
+     * @param requester The TARDIM of the peripheral asking
+     * @return Lua list of tables with id, owner, fuel, inFlight, location and destination
+     */
+    public ObjectLuaTable describe(TardimData requester) {
+        List<TardimData> fleet = new ArrayList<>();
+        for (TardimData data : TardimManager.getCache().values()) {
+            if (data.getCurrentLocation() != null && data.getOwnerName() != null && isAuthorized(requester, data)) {
+                fleet.add(data);
+            }
+        }
+        fleet.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+
+        Map<Integer, Object> entries = new HashMap<>();
+        for (int i = 0; i < fleet.size(); i++) {
+            TardimData data = fleet.get(i);
+            TardimSnapshot snapshot = TardimSnapshot.capture(data, 0L);
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("id", data.getId());
+            entry.put("owner", data.getOwnerName());
+            entry.put("fuel", data.getFuel());
+            entry.put("inFlight", data.isInFlight());
+            entry.put("location", snapshot.getCurrentLocationTable());
+            if (data.getTravelLocation() != null) {
+                entry.put("destination", snapshot.getTravelLocationTable());
+            }
+            entries.put(i + 1, new ObjectLuaTable(entry));
+        }
+        return new ObjectLuaTable(entries);
+    }
+
+    /**
+     * Queues a command for several TARDIMs. Every TARDIM is checked before any is queued.
+     * Must be called on the server thread.
+     *
+     * @param command     What to do to each TARDIM
+     * @param requester   The TARDIM of the peripheral asking
+     * @param host        The peripheral's host, used to report results
+     * @param ids         The TARDIM IDs, as a Lua list
+     * @param destination The destination for {@link Command#SET_DESTINATION}, otherwise null
+     * @return The command ID, passed back with each result event
+     * @throws LuaException If any TARDIM is unknown or not in the fleet, or the queue is full
+     */
+    public int submit(Command command, TardimData requester, TardimHost host, Map<?, ?> ids,
+                      @Nullable Destination destination) throws LuaException {
+        int count = 0;
+        while (ids.containsKey((double) (count + 1))) {
+            count++;
+        }
+        if (count == 0) {
+            throw new LuaException("Expected a list of TARDIM IDs");
+        }
+        if (count > MAX_IDS) {
+            throw new LuaException("Too many TARDIMs in one command (at most " + MAX_IDS + ")");
+        }
+        if (queue.size() + count > MAX_PENDING) {
+            throw new LuaException("Too many fleet commands are pending");
+        }
+
+        int[] tardims = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (!(ids.get((double) (i + 1)) instanceof Number number)) {
+                throw new LuaException("TARDIM ID " + (i + 1) + " is not a number");
+            }
+            tardims[i] = number.intValue();
+
+            TardimData data = TardimManager.getCache().get(tardims[i]);
+            if (data == null || data.getCurrentLocation() == null || !isAuthorized(requester, data)) {
+                throw new LuaException("TARDIM " + tardims[i] + " is not in this fleet");
+            }
+        }
+
+        int id = nextId++;
+        UUID owner = requester.getOwner();
+        for (int tardim : tardims) {
+            queue.addLast(new Job(id, command, tardim, owner, host, destination));
+        }
+        return id;
+    }
+
+    /**
+     * Checks whether a TARDIM belongs to the fleet of another: the requester's owner either owns
+     * it or is one of its companions.
+     */
+    public static boolean isAuthorized(TardimData requester, TardimData target) {
+        return isAuthorized(requester.getOwner(), target);
+    }
+
+    /**
+     * Checks whether a player owns a TARDIM or is one of its companions.
+     */
+    public static boolean isAuthorized(@Nullable UUID owner, TardimData target) {
+        if (owner == null) {
+            return false;
+        }
+        if (owner.equals(target.getOwner())) {
+            return true;
+        }
+        for (TardimData.Companion companion : target.getCompanions()) {
+            if (owner.equals(companion.getUuid())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void tick() {
+        int budget = SionaConfig.COMMON.fleetCommandsPerTick.get();
+        Job job;
+        while (budget > 0 && (job = queue.pollFirst()) != null) {
+            if (job.host.isRemoved()) {
+                continue;
+            }
+
+            budget--;
+            try {
+                run(job);
+            } catch (LuaException e) {
+                job.host.getComputers().queueEvent(EVENT, job.id, job.tardim, false, e.getMessage());
+                continue;
+            }
+            job.host.getComputers().queueEvent(EVENT, job.id, job.tardim, true);
+        }
+    }
+
+    private void run(Job job) throws LuaException {
+        // The TARDIM may have been unloaded since the command was queued
+        TardimData data = TardimManager.getCache().get(job.tardim);
+        if (data == null || data.getCurrentLocation() == null) {
+            throw new LuaException("TARDIM is no longer loaded");
+        }
+
+        // Companions may have been removed, or either TARDIM may have changed hands, since then
+        TardimData requester = job.host.getTardimData();
+        if (requester == null || !Objects.equals(requester.getOwner(), job.owner) || !isAuthorized(job.owner, data)) {
+            throw new LuaException("TARDIM is no longer in this fleet");
+        }
+
+        switch (job.command) {
+            case SET_DESTINATION -> {
+                Destination destination = job.destination;
+                if (data.getTravelLocation() == null) {
+                    data.setTravelLocation(new Location(data.getCurrentLocation()));
+                }
+                data.getTravelLocation().setLocation(destination.level());
+                data.getTravelLocation().setPosition(destination.pos().getX(), destination.pos().getY(), destination.pos().getZ());
+                DestinationPrewarmer.request(data);
+                TardimPersistence.markDirty(data);
+            }
+            case DEMAT -> {
+                ServerLevel exterior = TardimAPI.dematerialize(server, data);
+                exterior.playSound(null, data.getCurrentLocation().getPos(), TRDSounds.TARDIM_TAKEOFF.get(), SoundSource.AMBIENT, 1.0F, 1.0F);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        instance = new TardimFleet(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        TardimFleet fleet = instance;
+        if (fleet != null && !fleet.queue.isEmpty()) {
+            LOGGER.debug("Dropping {} pending fleet commands", fleet.queue.size());
+        }
+        instance = null;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        TardimFleet fleet = instance;
+        if (event.phase == TickEvent.Phase.END && fleet != null) {
+            fleet.tick();
+        }
+    }
+
+    /**
+     * The commands which can be sent to a fleet.
+     */
+    public enum Command {
+        SET_DESTINATION,
+        DEMAT
+    }
+
+    /**
+     * A destination for {@link Command#SET_DESTINATION}.
+     */
+    public record Destination(ResourceKey<Level> level, BlockPos pos) {
+    }
+
+    private record Job(int id, Command command, int tardim, @Nullable UUID owner, TardimHost host,
+                       @Nullable Destination destination) {
+    }
+}
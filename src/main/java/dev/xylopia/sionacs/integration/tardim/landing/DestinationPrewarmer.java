@@ -0,0 +1,204 @@
+package dev.xylopia.sionacs.integration.tardim.landing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.swdteam.tardim.TardimData;
+import com.swdteam.tardim.TardimData.Location;
+
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the area around a TARDIM's destination in the background as soon as it is set,
+ * so remat finds the chunks already resident instead of generating them on the server thread.
+ * Destinations are held by short-lived chunk tickets which expire on their own,
+ * and each TARDIM holds at most {@link #MAX_TICKETS_PER_TARDIM} of them.
+ * Nothing is prewarmed until the common config has loaded, so benchmarks without a server
+ * don't queue requests.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class DestinationPrewarmer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":Prewarmer");
+
+    // How long a destination stays loaded without being landed on, in ticks
+    private static final int TICKET_LIFESPAN = 20 * 60;
+    private static final int MAX_TICKETS_PER_TARDIM = 2;
+
+    private static final TicketType<Integer> PREWARM = TicketType.create(Constants.MOD_ID + "_prewarm", Integer::compareTo, TICKET_LIFESPAN);
+
+    // Destinations changed this tick, coalesced so setDimension + setTravelLocation only loads once
+    private static final Map<Integer, TardimData> requested = new LinkedHashMap<>();
+    private static final Map<Integer, Deque<Ticket>> tickets = new HashMap<>();
+
+    // Baked from the common config; -1 until it loads, which turns prewarming off
+    private static volatile int radius = -1;
+
+    /**
+     * Requests that a TARDIM's current destination be loaded.
+     * The request is handled at the end of the tick. Must be called on the server thread.
+     */
+    public static void request(TardimData data) {
+        if (radius >= 0) {
+            requested.put(data.getId(), data);
+        }
+    }
+
+    /**
+     * Checks whether the chunk containing a destination is loaded.
+     */
+    public static boolean isReady(ServerLevel level, BlockPos pos) {
+        return level.getChunkSource().getChunkNow(pos.getX() >> 4, pos.getZ() >> 4) != null;
+    }
+
+    /**
+     * Starts loading the area around a destination, if it isn't already held for this TARDIM.
+     * Must be called on the server thread.
+     *
+     * @param tardimId The TARDIM the destination belongs to
+     * @param level    The destination level
+     * @param pos      The destination position
+     */
+    public static void prewarm(int tardimId, ServerLevel level, BlockPos pos) {
+        int radius = DestinationPrewarmer.radius;
+        if (radius < 0) {
+            return;
+        }
+
+        ChunkPos chunkPos = new ChunkPos(pos);
+        ResourceKey<Level> dimension = level.dimension();
+        long now = level.getGameTime();
+        Deque<Ticket> held = tickets.computeIfAbsent(tardimId, id -> new ArrayDeque<>());
+
+        // Forget tickets which have already expired by themselves
+        held.removeIf(ticket -> ticket.expiresAt <= now);
+
+        for (Ticket ticket : held) {
+            if (ticket.dimension == dimension && ticket.pos.equals(chunkPos)) {
+                return;
+            }
+        }
+
+        while (held.size() >= MAX_TICKETS_PER_TARDIM) {
+            held.removeFirst().release(level.getServer(), tardimId);
+        }
+
+        level.getChunkSource().addRegionTicket(PREWARM, chunkPos, radius, tardimId);
+        held.addLast(new Ticket(dimension, chunkPos, radius, now + TICKET_LIFESPAN));
+
+        // The ticket drives loading; the future only tells us when the centre is ready
+        level.getChunkSource().getChunkFuture(chunkPos.x, chunkPos.z, ChunkStatus.FULL, true)
+                .thenAccept(result -> {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Destination {} in {} for TARDIM {} is {}", chunkPos, dimension.location(), tardimId,
+                                result.left().isPresent() ? "ready" : "unavailable");
+                    }
+                });
+    }
+
+    /**
+     * Releases every destination held for a TARDIM, e.g. once it has landed.
+     */
+    public static void release(MinecraftServer server, int tardimId) {
+        requested.remove(tardimId);
+        Deque<Ticket> held = tickets.remove(tardimId);
+        if (held != null) {
+            held.forEach(ticket -> ticket.release(server, tardimId));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || requested.isEmpty()) {
+            return;
+        }
+
+        MinecraftServer server = event.getServer();
+        for (TardimData data : requested.values()) {
+            Location loc = data.getTravelLocation();
+            if (loc == null || !data.isInFlight() && isCurrentLocation(data, loc)) {
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            ServerLevel level = server.getLevel(loc.getLevel());
+            if (level != null) {
+                prewarm(data.getId(), level, loc.getPos());
+            }
+        }
+        requested.clear();
+    }
+
+    private static boolean isCurrentLocation(TardimData data, Location loc) {
+        Location current = data.getCurrentLocation();
+        return current != null && current.getLevel() == loc.getLevel() && current.getPos().equals(loc.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        requested.clear();
+        tickets.clear();
+    }
+
+    /**
+     * Bakes the radius whenever the common config is loaded.
+     */
+    @Mod.EventBusSubscriber(modid = Constants.MOD_ID, bus = Mod.EventBusSubscriber.Bus.MOD)
+    public static final class ConfigEvents {
+        private ConfigEvents() {
+        }
+
+        @SubscribeEvent
+        public static void onConfigLoad(ModConfigEvent.Loading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                radius = SionaConfig.COMMON.prewarmRadius.get();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onConfigReload(ModConfigEvent.Reloading event) {
+            if (event.getConfig().getSpec() == SionaConfig.COMMON_SPEC) {
+                radius = SionaConfig.COMMON.prewarmRadius.get();
+            }
+        }
+    }
+
+    private static final class Ticket {
+        private final ResourceKey<Level> dimension;
+        private final ChunkPos pos;
+        private final int radius;
+        private final long expiresAt;
+
+        private Ticket(ResourceKey<Level> dimension, ChunkPos pos, int radius, long expiresAt) {
+            this.dimension = dimension;
+            this.pos = pos;
+            this.radius = radius;
+            this.expiresAt = expiresAt;
+        }
+
+        private void release(MinecraftServer server, int tardimId) {
+            ServerLevel level = server.getLevel(dimension);
+            if (level != null) {
+                level.getChunkSource().removeRegionTicket(PREWARM, pos, radius, tardimId);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package dev.xylopia.sionacs.integration.tardim.landing;
+
+import java.util.Map;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+
+/**
+ * Statistics from a single landing-site search, used to tune the search radius and chunk budget.
+ */
+public final class LandingSearchStats {
+    private final int probes;
+    private final int chunksVisited;
+    private final int chunksSkipped;
+    private final int radiusReached;
+    private final boolean found;
+    private final boolean budgetExhausted;
+    private final long nanos;
+
+    LandingSearchStats(int probes, int chunksVisited, int chunksSkipped, int radiusReached,
+                       boolean found, boolean budgetExhausted, long nanos) {
+        this.probes = probes;
+        this.chunksVisited = chunksVisited;
+        this.chunksSkipped = chunksSkipped;
+        this.radiusReached = radiusReached;
+        this.found = found;
+        this.budgetExhausted = budgetExhausted;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the number of candidate columns tested.
+     */
+    public int getProbes() {
+        return probes;
+    }
+
+    /**
+     * Gets the number of distinct loaded chunks the search read from.
+     */
+    public int getChunksVisited() {
+        return chunksVisited;
+    }
+
+    /**
+     * Gets the number of distinct chunks skipped because they were not loaded.
+     */
+    public int getChunksSkipped() {
+        return chunksSkipped;
+    }
+
+    /**
+     * Gets the largest ring radius, in blocks, that the search reached.
+     */
+    public int getRadiusReached() {
+        return radiusReached;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * Checks whether the search stopped because it ran out of chunk visits.
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Converts these statistics into a Lua table.
+     */
+    public ObjectLuaTable toLuaTable() {
+        return new ObjectLuaTable(Map.of(
+            "probes", probes,
+            "chunksVisited", chunksVisited,
+            "chunksSkipped", chunksSkipped,
+            "radius", radiusReached,
+            "found", found,
+            "budgetExhausted", budgetExhausted,
+            "timeMs", nanos / 1_000_000.0
+        ));
+    }
+}
@@ -0,0 +1,197 @@
+package dev.xylopia.sionacs.integration.tardim.landing;
+
+import com.swdteam.common.command.tardim.CommandTravel;
+import com.swdteam.main.Tardim;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Deterministic landing-site search.
+ * Walks square rings outward from the destination, reading surface heights from the
+ * heightmaps of chunks which are already loaded. Unloaded chunks are skipped rather than
+ * loaded, and the search stops after a fixed number of chunk visits, so its cost is bounded
+ * and the same destination always gives the same result.
+ */
+public final class LandingSiteSearch {
+    // Distance between candidate columns, in blocks
+    private static final int STEP = 2;
+
+    // Extra cost per block of height difference, relative to horizontal distance
+    private static final int VERTICAL_WEIGHT = 2;
+
+    private LandingSiteSearch() {
+    }
+
+    /**
+     * Searches for the closest place around the destination where a TARDIM can land.
+     * Must be called on the server thread.
+     *
+     * @param level       The destination level
+     * @param target      The requested destination
+     * @param maxRadius   The largest ring radius to search, in blocks
+     * @param chunkBudget The maximum number of distinct loaded chunks to read
+     * @return The search result
+     */
+    public static Result search(ServerLevel level, BlockPos target, int maxRadius, int chunkBudget) {
+        long start = System.nanoTime();
+        Search search = new Search(level, target, chunkBudget);
+
+        // Try the exact destination first, as the travel command does
+        if (search.loaded(target.getX(), target.getZ())) {
+            BlockPos exact = CommandTravel.getLandingPosition(level, target);
+            search.probes++;
+            if (isValid(level, exact)) {
+                search.offer(exact);
+            }
+        }
+
+        int radius = 0;
+        for (int r = STEP; r <= maxRadius && search.best == null && !search.exhausted; r += STEP) {
+            radius = r;
+            search.ring(r);
+        }
+
+        // A site in this ring may still be beaten by the next one, as rings are square
+        if (search.best != null && !search.exhausted && radius + STEP <= maxRadius) {
+            radius += STEP;
+            search.ring(radius);
+        }
+
+        LandingSearchStats stats = new LandingSearchStats(search.probes, search.chunksVisited, search.chunksSkipped,
+                radius, search.best != null, search.exhausted, System.nanoTime() - start);
+        return new Result(search.best, stats);
+    }
+
+    private static boolean isValid(ServerLevel level, BlockPos pos) {
+        return level.isInWorldBounds(pos)
+                && Block.canSupportRigidBlock(level, pos.below())
+                && Tardim.isPosValid(level, pos);
+    }
+
+    /**
+     * State for one search.
+     */
+    private static final class Search {
+        private final ServerLevel level;
+        private final BlockPos target;
+        private final int chunkBudget;
+        private final boolean useHeightmap;
+        private final LongSet seenChunks = new LongOpenHashSet();
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        private int probes = 0;
+        private int chunksVisited = 0;
+        private int chunksSkipped = 0;
+        private boolean exhausted = false;
+
+        @Nullable private BlockPos best = null;
+        private long bestScore = Long.MAX_VALUE;
+
+        private Search(ServerLevel level, BlockPos target, int chunkBudget) {
+            this.level = level;
+            this.target = target;
+            this.chunkBudget = chunkBudget;
+            // The heightmap gives the roof in dimensions with a ceiling, like the nether
+            this.useHeightmap = !level.dimensionType().hasCeiling();
+        }
+
+        private void ring(int r) {
+            int cx = target.getX();
+            int cz = target.getZ();
+            for (int d = -r; d < r && !exhausted; d += STEP) {
+                probe(cx + d, cz - r);
+                probe(cx + r, cz + d);
+                probe(cx - d, cz + r);
+                probe(cx - r, cz - d);
+            }
+        }
+
+        private void probe(int x, int z) {
+            LevelChunk chunk = chunk(x, z);
+            if (chunk == null) {
+                return;
+            }
+
+            probes++;
+            BlockPos pos;
+            if (useHeightmap) {
+                int y = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, x & 15, z & 15) + 1;
+                pos = cursor.set(x, y, z);
+            } else {
+                pos = CommandTravel.getLandingPosition(level, cursor.set(x, target.getY(), z));
+            }
+
+            if (isValid(level, pos)) {
+                offer(pos);
+            }
+        }
+
+        private void offer(BlockPos pos) {
+            long dx = pos.getX() - target.getX();
+            long dz = pos.getZ() - target.getZ();
+            long dy = (long) (pos.getY() - target.getY()) * VERTICAL_WEIGHT;
+            long score = dx * dx + dz * dz + dy * dy;
+            if (score < bestScore) {
+                bestScore = score;
+                best = pos.immutable();
+            }
+        }
+
+        private boolean loaded(int x, int z) {
+            return chunk(x, z) != null;
+        }
+
+        /**
+         * Gets a chunk if it is loaded, counting it against the budget the first time it is seen.
+         */
+        @Nullable
+        private LevelChunk chunk(int x, int z) {
+            int chunkX = x >> 4;
+            int chunkZ = z >> 4;
+            LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+
+            if (seenChunks.add(ChunkPos.asLong(chunkX, chunkZ))) {
+                if (chunk == null) {
+                    chunksSkipped++;
+                } else if (++chunksVisited >= chunkBudget) {
+                    exhausted = true;
+                }
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * The outcome of a landing-site search.
+     */
+    public static final class Result {
+        @Nullable private final BlockPos pos;
+        private final LandingSearchStats stats;
+
+        private Result(@Nullable BlockPos pos, LandingSearchStats stats) {
+            this.pos = pos;
+            this.stats = stats;
+        }
+
+        /**
+         * Gets the best landing position found.
+         * @return The position, or null if nowhere suitable was found.
+         */
+        @Nullable
+        public BlockPos getPos() {
+            return pos;
+        }
+
+        public LandingSearchStats getStats() {
+            return stats;
+        }
+    }
+}
@@ -8,10 +8,7 @@ import net.minecraft.world.level.material.MapColor;
 import net.minecraft.world.level.material.PushReaction;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.BlockGetter;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.block.state.StateDefinition;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
@@ -20,11 +17,10 @@ import net.minecraft.core.Direction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import dev.xylopia.sionacs.integration.tardim.TardimPeripheralRegistry;
-
 /**
  * The main TARDIM peripheral block.
  * This block provides computerized control for TARDIS functionality when placed inside a TARDIM.
+ * It has no ticker: {@link TardimPeripheralTracker} updates the block entity only while a computer is attached.
  */
 @SuppressWarnings("unused")
 public class TardimPeripheralBlock extends Block implements EntityBlock {
@@ -58,11 +54,4 @@ public class TardimPeripheralBlock extends Block implements EntityBlock {
     public BlockEntity newBlockEntity(@SuppressWarnings("null") @NotNull BlockPos pos, @SuppressWarnings("null") @NotNull BlockState state) {
         return new TardimPeripheralBlockEntity(pos, state);
     }
-
-    @Nullable
-    @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(@SuppressWarnings("null") Level level, @SuppressWarnings("null") BlockState state, @SuppressWarnings("null") BlockEntityType<T> type) {
-        return type == TardimPeripheralRegistry.TARDIM_PERIPHERAL_BLOCK_ENTITY.get() ? 
-            (lvl, pos, blockState, blockEntity) -> ((TardimPeripheralBlockEntity)blockEntity).tick(lvl, pos, blockState) : null;
-    }
 }
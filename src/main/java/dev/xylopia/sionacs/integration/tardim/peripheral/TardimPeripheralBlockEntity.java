@@ -13,122 +13,221 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import dan200.computercraft.api.peripheral.AttachedComputerSet;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+
 // Import the correct TARDIM classes from the public version
 import com.swdteam.tardim.TardimData;
 import com.swdteam.tardim.TardimManager;
 
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
 import dev.xylopia.sionacs.integration.tardim.TardimPeripheralRegistry;
+import dev.xylopia.sionacs.integration.tardim.TardimResolver;
+import dev.xylopia.sionacs.integration.tardim.TardimSnapshot;
+import dev.xylopia.sionacs.integration.tardim.TardimStateEvents;
 import dev.xylopia.sionacs.utils.Constants;
 
 /**
  * The block entity for the TARDIM peripheral block.
  * This handles storing state and providing peripheral functionality.
  */
-public class TardimPeripheralBlockEntity extends BlockEntity {
+public class TardimPeripheralBlockEntity extends BlockEntity implements TardimHost {
     private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimPeripherals");
     
     private TardimData tardimData = null;
     private boolean cachedTardimValid = false;
-    private long lastCheck = 0L;
     private int tardimId = -1;
 
+    // Set when the cached TARDIM must be looked up again before its next use
+    private volatile boolean needsResolve = true;
+    // Set when the saved ID must be looked up again too, rather than just the TARDIM it refers to
+    private volatile boolean needsNewId = false;
+
+    // Latest published state, read by the computer thread
+    private volatile TardimSnapshot snapshot = null;
+    private volatile boolean snapshotPublished = false;
+    private long snapshotVersion = 0L;
+
+    // Computers attached through any peripheral wrapping this block entity
+    private final AttachedComputerSet computers = new AttachedComputerSet();
+    private final TardimStateEvents events = new TardimStateEvents();
+
     public TardimPeripheralBlockEntity(BlockPos pos, BlockState state) {
         super(TardimPeripheralRegistry.TARDIM_PERIPHERAL_BLOCK_ENTITY.get(), pos, state);
     }
 
     /**
-     * Ticks the block entity.
-     * Used to update internal state and check TARDIM connection.
+     * Updates the published state and queues change events.
+     * Only called by {@link TardimPeripheralTracker} while a computer is attached.
      */
-    public void tick(Level level, BlockPos pos, BlockState state) {
-        if (level == null || level.isClientSide()) {
-            return;
+    void serverTick() {
+        publishSnapshot();
+        events.update(snapshot, computers);
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && !level.isClientSide()) {
+            // The ID saved with the block entity is trusted until something invalidates it
+            updateTardimData(true);
         }
+    }
 
-        // Only check for TARDIM every 40 ticks (2 seconds) to avoid performance issues
-        long currentTime = level.getGameTime();
-        if (currentTime - lastCheck >= 40) {
-            lastCheck = currentTime;
-            updateTardimData();
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        TardimPeripheralTracker.deactivate(this);
+    }
+
+    /**
+     * Attaches a computer to this peripheral. The first attached computer starts
+     * per-tick updates, and the TARDIM is looked up again by its saved ID before its next use.
+     */
+    @Override
+    public synchronized void attachComputer(IComputerAccess computer) {
+        computers.add(computer);
+        needsResolve = true;
+        TardimPeripheralTracker.activate(this);
+    }
+
+    /**
+     * Detaches a computer from this peripheral, stopping per-tick updates once none are left.
+     */
+    @Override
+    public synchronized void detachComputer(IComputerAccess computer) {
+        computers.remove(computer);
+        if (!computers.hasComputers()) {
+            TardimPeripheralTracker.deactivate(this);
         }
     }
 
     /**
-     * Updates the cached TARDIM data by checking if we're in a TARDIM dimension
-     * and finding the corresponding TARDIM data.
+     * Marks the cached TARDIM data and saved ID as stale, so both are looked up again before
+     * their next use.
      */
-    private void updateTardimData() {
-        Level level = this.getLevel();
-        if (level == null || level.isClientSide()) {
-            cachedTardimValid = false;
-            tardimData = null;
-            return;
+    public void invalidateTardim() {
+        needsNewId = true;
+        needsResolve = true;
+    }
+
+    /**
+     * Publishes a new snapshot of the TARDIM state if it has changed since the last one.
+     * Must be called on the server thread.
+     */
+    @Override
+    public void publishSnapshot() {
+        // A map lookup, so cheap enough to do every tick: picks up the TARDIM being replaced,
+        // created or claimed, which nothing tells the peripheral about
+        if (!needsResolve && tardimId >= 0 && level != null && TardimResolver.isTardimLevel(level)) {
+            TardimData current = TardimManager.getTardim(tardimId);
+            if (current != tardimData || cachedTardimValid != isUsable(current)) {
+                needsResolve = true;
+            }
         }
 
-        // Check if we're in a TARDIM dimension
-        String dimensionKey = level.dimension().location().toString();
-        
-        // Log the dimension we're in for debugging
-        LOGGER.debug("Current dimension: {}", dimensionKey);
-        
-        if (!dimensionKey.contains("tardim")) {
-            LOGGER.debug("Not in a TARDIM dimension");
+        TardimData data = isInValidTardim() ? tardimData : null;
+        if (data == null || data.getCurrentLocation() == null || data.getOwnerName() == null) {
+            snapshot = null;
+        } else {
+            TardimSnapshot current = snapshot;
+            if (current == null || !current.matches(data)) {
+                snapshot = TardimSnapshot.capture(data, ++snapshotVersion);
+            }
+        }
+        snapshotPublished = true;
+    }
+
+    /**
+     * Gets the latest published snapshot of the TARDIM state. Safe to call from any thread.
+     * @return The snapshot, or null if not in a valid TARDIM.
+     */
+    @Nullable
+    @Override
+    public TardimSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Checks whether a snapshot has been published since this block entity was loaded.
+     * Until then a null snapshot doesn't mean the peripheral is outside a TARDIM.
+     */
+    @Override
+    public boolean isSnapshotPublished() {
+        return snapshotPublished;
+    }
+
+    /**
+     * Updates the cached TARDIM data by checking if we're in the TARDIM dimension
+     * and finding the corresponding TARDIM data.
+     *
+     * @param trustSavedId Whether to use the ID saved with this block entity instead of looking it up
+     */
+    private void updateTardimData(boolean trustSavedId) {
+        needsResolve = false;
+        needsNewId = false;
+        Level level = this.getLevel();
+        if (level == null || level.isClientSide() || !TardimResolver.isTardimLevel(level)) {
             cachedTardimValid = false;
             tardimData = null;
             return;
         }
 
-        // Try to find which TARDIM we're in based on position
         try {
-            // Get block position
-            BlockPos pos = this.getBlockPos();
-            
-            // Use TardimManager directly to get TARDIM index from position
-            // Note that INTERIOR_BOUNDS is now a field with value 96, not a config value
-            int tardimIndex = TardimManager.getIDForXZ(pos.getX(), pos.getZ());
-            
-            LOGGER.debug("TARDIM index at position {},{}: {}", pos.getX(), pos.getZ(), tardimIndex);
-            
-            if (tardimIndex >= 0) {
-                // Get the TARDIM data directly
-                tardimData = TardimManager.getTardim(tardimIndex);
-                tardimId = tardimIndex;
-                
-                // Check if it's a valid TARDIM
-                if (tardimData != null && tardimData.getCurrentLocation() != null && tardimData.getOwnerName() != null) {
-                    cachedTardimValid = true;
-                    LOGGER.debug("Found valid TARDIM: Owner={}, ID={}", 
-                            tardimData.getOwnerName(), tardimData.getId());
-                } else {
-                    LOGGER.debug("Invalid TARDIM data at index {}", tardimIndex);
-                    cachedTardimValid = false;
-                }
-            } else {
-                LOGGER.debug("No TARDIM found at position: {}", pos);
-                cachedTardimValid = false;
-                tardimData = null;
+            if (!trustSavedId || tardimId < 0) {
+                tardimId = TardimResolver.getId(this.getBlockPos());
+            }
+
+            tardimData = TardimManager.getTardim(tardimId);
+            cachedTardimValid = isUsable(tardimData);
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Peripheral at {} resolved to TARDIM {} ({})", this.getBlockPos(), tardimId,
+                        cachedTardimValid ? "valid" : "invalid");
             }
         } catch (Exception e) {
-            // If any error occurs, log it and set valid to false
-            LOGGER.error("Failed to access TARDIM data: {}", e.getMessage());
-            e.printStackTrace();
+            LOGGER.error("Failed to access TARDIM data", e);
             cachedTardimValid = false;
             tardimData = null;
         }
     }
 
+    /**
+     * Checks whether TARDIM data is complete enough for the peripheral to use.
+     */
+    private static boolean isUsable(@Nullable TardimData data) {
+        return data != null && data.getCurrentLocation() != null && data.getOwnerName() != null;
+    }
+
+    /**
+     * Looks the TARDIM up again if it has been marked as stale.
+     */
+    private void resolveIfNeeded() {
+        if (needsResolve) {
+            updateTardimData(!needsNewId);
+        }
+    }
+
     /**
      * Gets the TARDIM data for this peripheral.
      * @return The TARDIM data or null if not in a valid TARDIM.
      */
     @Nullable
+    @Override
     public TardimData getTardimData() {
-        if (!cachedTardimValid) {
-            updateTardimData();
-        }
+        resolveIfNeeded();
         return tardimData;
     }
 
+    /**
+     * Gets the computers attached to this peripheral.
+     * @return The set of attached computers.
+     */
+    @Override
+    public AttachedComputerSet getComputers() {
+        return computers;
+    }
+
     /**
      * Gets the Block underneath this BlockEntity.
      * @return The associated Block.
@@ -142,9 +241,7 @@ public class TardimPeripheralBlockEntity extends BlockEntity {
      * @return true if in a valid TARDIM, false otherwise.
      */
     public boolean isInValidTardim() {
-        if (!cachedTardimValid) {
-            updateTardimData();
-        }
+        resolveIfNeeded();
         return cachedTardimValid;
     }
 
@@ -157,7 +254,7 @@ public class TardimPeripheralBlockEntity extends BlockEntity {
     @Override
     public void load(@SuppressWarnings("null") @NotNull CompoundTag tag) {
         super.load(tag);
-        this.tardimId = tag.getInt("tardim_id");
+        this.tardimId = tag.contains("tardim_id") ? tag.getInt("tardim_id") : -1;
     }
 
     @Override
@@ -0,0 +1,65 @@
+package dev.xylopia.sionacs.integration.tardim.peripheral;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Keeps track of the TARDIM peripherals which have a computer attached, and updates only those each tick.
+ * Peripherals without computers cost nothing per tick.
+ *
+ * Computers attach and detach on the computer thread, so the set of active peripherals is concurrent.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class TardimPeripheralTracker {
+    private static final Set<TardimPeripheralBlockEntity> active = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts updating a block entity every tick. Safe to call from any thread.
+     */
+    static void activate(TardimPeripheralBlockEntity blockEntity) {
+        active.add(blockEntity);
+    }
+
+    /**
+     * Stops updating a block entity. Safe to call from any thread.
+     */
+    static void deactivate(TardimPeripheralBlockEntity blockEntity) {
+        active.remove(blockEntity);
+    }
+
+    /**
+     * Gets the number of peripherals currently being updated.
+     */
+    public static int getActiveCount() {
+        return active.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || active.isEmpty()) {
+            return;
+        }
+
+        Iterator<TardimPeripheralBlockEntity> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            TardimPeripheralBlockEntity blockEntity = iterator.next();
+            if (blockEntity.isRemoved()) {
+                iterator.remove();
+            } else {
+                blockEntity.serverTick();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        active.clear();
+    }
+}
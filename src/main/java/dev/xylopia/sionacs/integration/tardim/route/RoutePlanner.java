@@ -0,0 +1,320 @@
+package dev.xylopia.sionacs.integration.tardim.route;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.utils.SionaConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans multi-hop journeys through refuelling stops, on worker threads.
+ *
+ * Each hop costs fuel as {@link #journeyFuel} does, the same model as calculateFuelForJourney.
+ * A hop may only be taken if the TARDIM has the fuel for it: the TARDIM's current fuel for the
+ * first hop, and a full tank after each refuelling stop. Routes are found with Dijkstra's
+ * algorithm, minimising either the total fuel or the number of hops. Every stop can reach every
+ * other, so the search scans an array rather than keeping a heap, costing O(n^2) for n stops.
+ *
+ * Searches never touch the world, so they run on a small pool of daemon threads and report back
+ * with a {@code tardim_route} event. One planner exists per running server.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class RoutePlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":RoutePlanner");
+
+    public static final String EVENT = "tardim_route";
+
+    /** Fuel in a full tank, and the most any one journey costs. */
+    public static final double FULL_TANK = 100.0;
+    /** Extra fuel for a journey between dimensions. */
+    public static final double DIMENSION_CHANGE_FUEL = 10.0;
+    /** Largest number of refuelling stops one search may consider. */
+    public static final int MAX_WAYPOINTS = 4096;
+
+    // Searches queued or running across all computers
+    private static final int MAX_PENDING = 16;
+
+    @Nullable private static volatile RoutePlanner instance = null;
+
+    private final ExecutorService workers;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    private RoutePlanner(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "SionaCS Route Planner #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        this.workers = Executors.newFixedThreadPool(threads, factory);
+    }
+
+    /**
+     * Gets the planner for the running server.
+     * @throws LuaException If no server is running
+     */
+    public static RoutePlanner get() throws LuaException {
+        RoutePlanner planner = instance;
+        if (planner == null) {
+            throw new LuaException("Route planning is not running");
+        }
+        return planner;
+    }
+
+    /**
+     * Gets the fuel needed to travel between two places.
+     */
+    public static double journeyFuel(ResourceKey<Level> fromLevel, BlockPos from, ResourceKey<Level> toLevel, BlockPos to) {
+        double fuel = fromLevel.equals(toLevel) ? 0.0 : DIMENSION_CHANGE_FUEL;
+        fuel += Math.sqrt(from.distSqr(to)) / 100.0;
+        return Math.min(fuel, FULL_TANK);
+    }
+
+    /**
+     * Queues a search for a route. Safe to call from any thread.
+     *
+     * @param host        The peripheral's host, used to report the route
+     * @param start       Where the TARDIM is now
+     * @param fuel        The TARDIM's current fuel
+     * @param destination Where the TARDIM should end up
+     * @param waypoints   Places the TARDIM may stop to refuel
+     * @param mode        What the route should minimise
+     * @return The search ID, passed back with the result event
+     * @throws LuaException If too many searches are pending
+     */
+    public int submit(TardimHost host, Waypoint start, double fuel, Waypoint destination, List<Waypoint> waypoints, Mode mode) throws LuaException {
+        if (waypoints.size() > MAX_WAYPOINTS) {
+            throw new LuaException("Too many waypoints (at most " + MAX_WAYPOINTS + ")");
+        }
+        if (pending.incrementAndGet() > MAX_PENDING) {
+            pending.decrementAndGet();
+            throw new LuaException("Too many route searches are pending");
+        }
+
+        int id = nextId.getAndIncrement();
+        try {
+            workers.execute(() -> {
+                try {
+                    report(host, id, plan(start, fuel, destination, waypoints, mode));
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            throw new LuaException("Route planning is not running");
+        }
+        return id;
+    }
+
+    private static void report(TardimHost host, int id, Object result) {
+        if (host.isRemoved()) {
+            return;
+        }
+        if (result instanceof String error) {
+            host.getComputers().queueEvent(EVENT, id, false, error);
+        } else {
+            host.getComputers().queueEvent(EVENT, id, true, result);
+        }
+    }
+
+    /**
+     * Finds a route, returning it as a Lua table, or an error message if there is none.
+     */
+    static Object plan(Waypoint start, double startFuel, Waypoint destination, List<Waypoint> waypoints, Mode mode) {
+        // Node 0 is the start, then the refuelling stops, then the destination
+        int count = waypoints.size() + 2;
+        int target = count - 1;
+        Waypoint[] nodes = new Waypoint[count];
+        nodes[0] = start;
+        for (int i = 0; i < waypoints.size(); i++) {
+            nodes[i + 1] = waypoints.get(i);
+        }
+        nodes[target] = destination;
+
+        // Flatten the nodes so the inner loop doesn't chase pointers
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double[] zs = new double[count];
+        int[] dimensions = new int[count];
+        Map<ResourceKey<Level>, Integer> dimensionIds = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            xs[i] = nodes[i].pos().getX();
+            ys[i] = nodes[i].pos().getY();
+            zs[i] = nodes[i].pos().getZ();
+            dimensions[i] = dimensionIds.computeIfAbsent(nodes[i].level(), key -> dimensionIds.size());
+        }
+
+        double[] fuel = new double[count];
+        int[] hops = new int[count];
+        int[] previous = new int[count];
+        boolean[] done = new boolean[count];
+        Arrays.fill(fuel, Double.POSITIVE_INFINITY);
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        Arrays.fill(previous, -1);
+        fuel[0] = 0.0;
+        hops[0] = 0;
+
+        for (int round = 0; round < count; round++) {
+            if ((round & 0xFF) == 0 && Thread.currentThread().isInterrupted()) {
+                return "Route search was cancelled";
+            }
+
+            // Take the closest node not yet settled
+            int node = -1;
+            for (int i = 0; i < count; i++) {
+                if (!done[i] && hops[i] != Integer.MAX_VALUE && (node < 0 || isBetter(mode, fuel[i], hops[i], fuel[node], hops[node]))) {
+                    node = i;
+                }
+            }
+            if (node < 0 || node == target) {
+                break;
+            }
+            done[node] = true;
+
+            // Refuelling stops fill the tank; the start only has what the TARDIM has now
+            double tank = node == 0 ? startFuel : FULL_TANK;
+            for (int next = 1; next < count; next++) {
+                if (done[next]) {
+                    continue;
+                }
+
+                double dx = xs[next] - xs[node];
+                double dy = ys[next] - ys[node];
+                double dz = zs[next] - zs[node];
+                double cost = Math.sqrt(dx * dx + dy * dy + dz * dz) / 100.0;
+                if (dimensions[next] != dimensions[node]) {
+                    cost += DIMENSION_CHANGE_FUEL;
+                }
+                cost = Math.min(cost, FULL_TANK);
+                if (cost > tank) {
+                    continue;
+                }
+
+                double nextFuel = fuel[node] + cost;
+                int nextHops = hops[node] + 1;
+                if (hops[next] == Integer.MAX_VALUE || isBetter(mode, nextFuel, nextHops, fuel[next], hops[next])) {
+                    fuel[next] = nextFuel;
+                    hops[next] = nextHops;
+                    previous[next] = node;
+                }
+            }
+        }
+
+        if (previous[target] < 0) {
+            return "No route with enough fuel";
+        }
+        return toLuaTable(nodes, fuel, previous, target);
+    }
+
+    private static boolean isBetter(Mode mode, double fuel, int hops, double bestFuel, int bestHops) {
+        return switch (mode) {
+            case FUEL -> fuel < bestFuel || (fuel == bestFuel && hops < bestHops);
+            case HOPS -> hops < bestHops || (hops == bestHops && fuel < bestFuel);
+        };
+    }
+
+    private static ObjectLuaTable toLuaTable(Waypoint[] nodes, double[] fuel, int[] previous, int target) {
+        int length = 0;
+        for (int node = target; node != 0; node = previous[node]) {
+            length++;
+        }
+
+        Map<Integer, Object> hops = new HashMap<>();
+        int index = length;
+        for (int node = target; node != 0; node = previous[node]) {
+            Waypoint waypoint = nodes[node];
+            Map<String, Object> hop = new HashMap<>();
+            hop.put("dimension", waypoint.level().location().toString());
+            hop.put("x", waypoint.pos().getX());
+            hop.put("y", waypoint.pos().getY());
+            hop.put("z", waypoint.pos().getZ());
+            hop.put("fuel", fuel[node] - fuel[previous[node]]);
+            hop.put("refuel", node != target);
+            if (waypoint.name() != null) {
+                hop.put("name", waypoint.name());
+            }
+            hops.put(index--, new ObjectLuaTable(hop));
+        }
+
+        return new ObjectLuaTable(Map.of(
+            "fuel", fuel[target],
+            "hops", new ObjectLuaTable(hops)
+        ));
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        instance = new RoutePlanner(SionaConfig.COMMON.routePlannerThreads.get());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        RoutePlanner planner = instance;
+        instance = null;
+        if (planner != null) {
+            List<Runnable> dropped = planner.workers.shutdownNow();
+            if (!dropped.isEmpty()) {
+                LOGGER.debug("Dropping {} pending route searches", dropped.size());
+            }
+        }
+    }
+
+    /**
+     * What a route should minimise.
+     */
+    public enum Mode {
+        FUEL,
+        HOPS;
+
+        /**
+         * Gets the mode with the given Lua name.
+         * @throws LuaException If there is no such mode
+         */
+        public static Mode fromName(String name) throws LuaException {
+            for (Mode mode : values()) {
+                if (mode.getName().equals(name)) {
+                    return mode;
+                }
+            }
+            throw new LuaException("Unknown route mode " + name + " (expected fuel or hops)");
+        }
+
+        /**
+         * Gets the name passed to and from Lua.
+         */
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * A place on a route.
+     * @param name A label passed back with the route, or null
+     */
+    public record Waypoint(@Nullable String name, ResourceKey<Level> level, BlockPos pos) {
+    }
+}
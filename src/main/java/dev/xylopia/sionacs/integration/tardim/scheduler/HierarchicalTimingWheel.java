@@ -0,0 +1,174 @@
+package dev.xylopia.sionacs.integration.tardim.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel counting in server ticks.
+ * Four levels of 64 slots cover delays of up to 64^4 ticks (a little under ten days).
+ * Scheduling and cancelling are O(1); each tick only looks at the slot that is due,
+ * plus one slot per level when that level rolls over.
+ *
+ * This class is not thread-safe and is only used from the server thread.
+ *
+ * @param <T> The payload type
+ */
+public class HierarchicalTimingWheel<T> {
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The longest delay that can be scheduled, in ticks.
+     */
+    public static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    // Sentinel head node for every slot's circular list
+    private final Entry<T>[][] slots;
+    private long currentTick;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.slots = new Entry[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Entry<T> head = new Entry<>(null, 0);
+                head.prev = head.next = head;
+                slots[level][slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Schedules a payload to expire after the given number of ticks.
+     *
+     * @param delay   Delay in ticks, clamped to between 1 and {@link #MAX_DELAY}
+     * @param payload The payload to hand back on expiry
+     * @return A handle which can be used to cancel the entry
+     */
+    public Entry<T> schedule(long delay, T payload) {
+        long clamped = Math.max(1, Math.min(delay, MAX_DELAY));
+        Entry<T> entry = new Entry<>(payload, currentTick + clamped);
+        insert(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Removes an entry before it expires.
+     * @return true if the entry was still pending
+     */
+    public boolean cancel(Entry<T> entry) {
+        if (entry.next == null) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given tick, passing every expired payload to the consumer.
+     * When nothing is scheduled this only updates the current tick.
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        if (size == 0) {
+            currentTick = Math.max(currentTick, tick);
+            return;
+        }
+
+        while (currentTick < tick) {
+            currentTick++;
+
+            // Cascade from the highest level which rolled over down to level 1
+            int rolled = 0;
+            while (rolled + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (rolled + 1))) - 1)) == 0) {
+                rolled++;
+            }
+            for (int level = rolled; level >= 1; level--) {
+                cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            }
+
+            Entry<T> head = slots[0][(int) currentTick & SLOT_MASK];
+            while (head.next != head) {
+                Entry<T> entry = head.next;
+                unlink(entry);
+                size--;
+                expired.accept(entry.payload);
+            }
+
+            if (size == 0) {
+                currentTick = tick;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of pending entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    private void cascade(int level, int slot) {
+        Entry<T> head = slots[level][slot];
+        while (head.next != head) {
+            Entry<T> entry = head.next;
+            unlink(entry);
+            insert(entry);
+        }
+    }
+
+    private void insert(Entry<T> entry) {
+        // Use the lowest level whose parent bucket is the one we're currently in
+        int level = 0;
+        while (level + 1 < LEVELS && (entry.deadline >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        Entry<T> head = slots[level][(int) (entry.deadline >>> (SLOT_BITS * level)) & SLOT_MASK];
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+    }
+
+    private void unlink(Entry<T> entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+    /**
+     * A scheduled entry in the wheel.
+     */
+    public static final class Entry<T> {
+        private final T payload;
+        private final long deadline;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        private Entry(T payload, long deadline) {
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        /**
+         * Gets the tick this entry expires on.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+}
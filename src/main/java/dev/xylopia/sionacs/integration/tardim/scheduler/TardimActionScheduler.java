@@ -0,0 +1,203 @@
+package dev.xylopia.sionacs.integration.tardim.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import dan200.computercraft.api.lua.LuaException;
+import dev.xylopia.sionacs.integration.computercraft.TardimCost;
+import dev.xylopia.sionacs.integration.computercraft.TardimGovernor;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs deferred TARDIM actions (landing when allowed, landing at a set time, auto-locking)
+ * on the server thread, reporting the outcome to the peripheral's computers as a
+ * {@code tardim_action} event. One scheduler exists per running server.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public class TardimActionScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":TardimScheduler");
+
+    public static final String EVENT = "tardim_action";
+
+    // How long to wait before trying to land again if the TARDIM isn't ready yet
+    private static final long REMAT_RETRY_TICKS = 20;
+
+    @Nullable private static TardimActionScheduler instance = null;
+
+    private final HierarchicalTimingWheel<Action> wheel;
+    private final Map<Integer, Action> pending = new HashMap<>();
+    private final Consumer<Action> runner = this::run;
+    private long tick;
+    private int nextId = 1;
+
+    // Package-private for tests; in game the scheduler is created when the server starts
+    TardimActionScheduler(long startTick) {
+        this.tick = startTick;
+        this.wheel = new HierarchicalTimingWheel<>(startTick);
+    }
+
+    /**
+     * Gets the scheduler for the running server.
+     * @throws LuaException If no server is running
+     */
+    public static TardimActionScheduler get() throws LuaException {
+        TardimActionScheduler scheduler = instance;
+        if (scheduler == null) {
+            throw new LuaException("Scheduler is not running");
+        }
+        return scheduler;
+    }
+
+    /**
+     * Schedules an action to run after a number of ticks.
+     *
+     * @param kind        What to do when the action runs
+     * @param api         The API of the peripheral which requested the action
+     * @param host        The peripheral's host, used to report the result
+     * @param delay       Delay in ticks
+     * @return The action ID, passed back with the completion event
+     * @throws LuaException If the delay is too long
+     */
+    public int schedule(Kind kind, TardimAPI api, TardimHost host, long delay) throws LuaException {
+        if (delay > HierarchicalTimingWheel.MAX_DELAY) {
+            throw new LuaException("Delay is too long");
+        }
+
+        Action action = new Action(nextId++, kind, api, host);
+        action.entry = wheel.schedule(delay, action);
+        pending.put(action.id, action);
+        return action.id;
+    }
+
+    /**
+     * Cancels a pending action. Action IDs are shared by every TARDIM, so only the peripheral
+     * which scheduled an action may cancel it.
+     *
+     * @param id   The action ID
+     * @param host The host of the peripheral asking
+     * @return true if the action was pending for this host and has been cancelled
+     */
+    public boolean cancel(int id, TardimHost host) {
+        Action action = pending.get(id);
+        if (action == null || action.host != host) {
+            return false;
+        }
+
+        pending.remove(id);
+        return wheel.cancel(action.entry);
+    }
+
+    private void tick() {
+        // Constant time while nothing is scheduled
+        wheel.advanceTo(++tick, runner);
+    }
+
+    private void run(Action action) {
+        TardimHost host = action.host;
+        if (host.isRemoved()) {
+            pending.remove(action.id);
+            return;
+        }
+
+        // Landing is expensive, so wait while the governor is holding it back
+        if (action.kind != Kind.LOCK && TardimGovernor.isDeferred(TardimCost.Tier.EXPENSIVE)) {
+            action.entry = wheel.schedule(REMAT_RETRY_TICKS, action);
+            return;
+        }
+
+        try {
+            switch (action.kind) {
+                case REMAT_WHEN_READY, REMAT_AT -> action.api.remat();
+                case LOCK -> action.api.setLocked(true);
+            }
+        } catch (LuaException e) {
+            if (action.kind == Kind.REMAT_WHEN_READY && isNotReady(e)) {
+                action.entry = wheel.schedule(REMAT_RETRY_TICKS, action);
+                return;
+            }
+
+            pending.remove(action.id);
+            host.publishSnapshot();
+            host.getComputers().queueEvent(EVENT, action.id, action.kind.getName(), false, e.getMessage());
+            return;
+        }
+
+        pending.remove(action.id);
+        host.publishSnapshot();
+        host.getComputers().queueEvent(EVENT, action.id, action.kind.getName(), true);
+    }
+
+    private static boolean isNotReady(LuaException e) {
+        return TardimAPI.STILL_TAKING_OFF.equals(e.getMessage()) || TardimAPI.DESTINATION_NOT_READY.equals(e.getMessage());
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        instance = new TardimActionScheduler(event.getServer().getTickCount());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        TardimActionScheduler scheduler = instance;
+        if (scheduler != null && !scheduler.pending.isEmpty()) {
+            LOGGER.debug("Dropping {} pending TARDIM actions", scheduler.pending.size());
+        }
+        instance = null;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        TardimActionScheduler scheduler = instance;
+        if (event.phase == TickEvent.Phase.END && scheduler != null) {
+            scheduler.tick();
+        }
+    }
+
+    /**
+     * The kinds of action which can be scheduled.
+     */
+    public enum Kind {
+        REMAT_WHEN_READY("remat"),
+        REMAT_AT("remat_at"),
+        LOCK("lock");
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name passed to Lua in the completion event.
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Action {
+        private final int id;
+        private final Kind kind;
+        private final TardimAPI api;
+        private final TardimHost host;
+        private HierarchicalTimingWheel.Entry<Action> entry;
+
+        private Action(int id, Kind kind, TardimAPI api, TardimHost host) {
+            this.id = id;
+            this.kind = kind;
+            this.api = api;
+            this.host = host;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package dev.xylopia.sionacs.integration.tardim.waypoint;
+
+import java.util.Map;
+
+import dan200.computercraft.api.lua.ObjectLuaTable;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/**
+ * A named place saved by a TARDIM owner.
+ */
+public record Waypoint(String name, ResourceKey<Level> level, BlockPos pos) {
+    /**
+     * Gets one coordinate of the position: 0 for x, 1 for y and 2 for z.
+     */
+    int coordinate(int axis) {
+        return switch (axis) {
+            case 0 -> pos.getX();
+            case 1 -> pos.getY();
+            default -> pos.getZ();
+        };
+    }
+
+    /**
+     * Converts the waypoint into a Lua table.
+     * @param distance Distance from the query position, or a negative number to leave it out
+     */
+    public ObjectLuaTable toLuaTable(double distance) {
+        if (distance < 0) {
+            return new ObjectLuaTable(Map.of(
+                "name", name,
+                "dimension", level.location().toString(),
+                "x", pos.getX(),
+                "y", pos.getY(),
+                "z", pos.getZ()
+            ));
+        }
+        return new ObjectLuaTable(Map.of(
+            "name", name,
+            "dimension", level.location().toString(),
+            "x", pos.getX(),
+            "y", pos.getY(),
+            "z", pos.getZ(),
+            "distance", distance
+        ));
+    }
+}
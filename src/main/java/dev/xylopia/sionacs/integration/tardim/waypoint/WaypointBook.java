@@ -0,0 +1,270 @@
+package dev.xylopia.sionacs.integration.tardim.waypoint;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dan200.computercraft.api.lua.LuaException;
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The waypoints saved by one TARDIM owner, indexed by dimension.
+ *
+ * The contents are immutable and replaced as a whole on every change, rebuilding only the index
+ * of the dimension which changed, so queries never lock. Changes are serialised on the book.
+ *
+ * On disk a book is a single binary file: a header, then for each waypoint its name, dimension
+ * and position, with strings stored as a length and UTF-8 bytes. Files are small enough to be
+ * read whole, and are replaced atomically when written.
+ */
+public final class WaypointBook {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":WaypointBook");
+
+    /** Most waypoints one owner may save. */
+    public static final int MAX_WAYPOINTS = 1024;
+    /** Longest waypoint name, in characters. */
+    public static final int MAX_NAME_LENGTH = 64;
+
+    private static final int MAGIC = 0x53575054; // "SWPT"
+    private static final short VERSION = 1;
+
+    private final Path file;
+    private volatile Contents contents;
+    // Guarded by this
+    private boolean dirty = false;
+
+    private WaypointBook(Path file, Contents contents) {
+        this.file = file;
+        this.contents = contents;
+    }
+
+    /**
+     * Loads a book from its file, or creates an empty one if the file doesn't exist yet.
+     * @throws IOException If the file can't be read, or is truncated or corrupt
+     */
+    static WaypointBook load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new WaypointBook(file, Contents.EMPTY);
+        }
+
+        // Read rather than mapped: a live mapping stops the file being replaced on Windows
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        Map<String, Waypoint> byName = new HashMap<>();
+        try {
+            if (buffer.remaining() < 10 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a waypoint file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported waypoint file version " + version);
+            }
+
+            int count = buffer.getInt();
+            if (count < 0 || count > MAX_WAYPOINTS) {
+                throw new IOException("Corrupt waypoint file: " + count + " waypoints");
+            }
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                String dimension = readString(buffer);
+                BlockPos pos = new BlockPos(buffer.getInt(), buffer.getInt(), buffer.getInt());
+
+                ResourceLocation location = ResourceLocation.tryParse(dimension);
+                if (location == null) {
+                    LOGGER.warn("Skipping waypoint {} in {} with invalid dimension {}", name, file, dimension);
+                    continue;
+                }
+                byName.put(name, new Waypoint(name, ResourceKey.create(Registries.DIMENSION, location), pos));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated waypoint file", e);
+        }
+
+        return new WaypointBook(file, Contents.of(byName));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a waypoint by name.
+     */
+    @Nullable
+    public Waypoint get(String name) {
+        return contents.byName.get(name);
+    }
+
+    public int size() {
+        return contents.byName.size();
+    }
+
+    /**
+     * Saves a waypoint, replacing any with the same name.
+     * @throws LuaException If the name is invalid or the book is full
+     */
+    public synchronized void put(Waypoint waypoint) throws LuaException {
+        String name = waypoint.name();
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new LuaException("Waypoint names must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+
+        Map<String, Waypoint> byName = contents.byName;
+        Waypoint previous = byName.get(name);
+        if (previous == null && byName.size() >= MAX_WAYPOINTS) {
+            throw new LuaException("Too many waypoints (at most " + MAX_WAYPOINTS + ")");
+        }
+
+        Map<String, Waypoint> updated = new HashMap<>(byName);
+        updated.put(name, waypoint);
+        replace(updated, previous, waypoint);
+    }
+
+    /**
+     * Removes a waypoint.
+     * @return Whether there was a waypoint with the name
+     */
+    public synchronized boolean remove(String name) {
+        Waypoint previous = contents.byName.get(name);
+        if (previous == null) {
+            return false;
+        }
+
+        Map<String, Waypoint> updated = new HashMap<>(contents.byName);
+        updated.remove(name);
+        replace(updated, previous, null);
+        return true;
+    }
+
+    private void replace(Map<String, Waypoint> byName, @Nullable Waypoint removed, @Nullable Waypoint added) {
+        // Only the dimensions which changed need a new index
+        Map<ResourceKey<Level>, WaypointIndex> byLevel = new HashMap<>(contents.byLevel);
+        if (removed != null) {
+            reindex(byLevel, byName, removed.level());
+        }
+        if (added != null && (removed == null || !added.level().equals(removed.level()))) {
+            reindex(byLevel, byName, added.level());
+        }
+
+        contents = new Contents(Collections.unmodifiableMap(byName), byLevel);
+        dirty = true;
+    }
+
+    private static void reindex(Map<ResourceKey<Level>, WaypointIndex> byLevel, Map<String, Waypoint> byName, ResourceKey<Level> level) {
+        List<Waypoint> waypoints = new ArrayList<>();
+        for (Waypoint waypoint : byName.values()) {
+            if (waypoint.level().equals(level)) {
+                waypoints.add(waypoint);
+            }
+        }
+
+        if (waypoints.isEmpty()) {
+            byLevel.remove(level);
+        } else {
+            byLevel.put(level, new WaypointIndex(waypoints));
+        }
+    }
+
+    /**
+     * Finds the waypoints in a dimension closest to a position.
+     * @return Up to {@code count} matches, closest first
+     */
+    public List<WaypointIndex.Match> nearest(ResourceKey<Level> level, BlockPos pos, int count) {
+        WaypointIndex index = contents.byLevel.get(level);
+        return index == null ? List.of() : index.nearest(pos, count);
+    }
+
+    /**
+     * Finds the waypoints in a dimension within a distance of a position.
+     * @return The matches, closest first
+     */
+    public List<WaypointIndex.Match> inRadius(ResourceKey<Level> level, BlockPos pos, double radius) {
+        WaypointIndex index = contents.byLevel.get(level);
+        return index == null ? List.of() : index.inRadius(pos, radius);
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Writes the book to its file if it has changed. Safe to call from any thread.
+     */
+    void save() {
+        Contents saving;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            saving = contents;
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(saving.byName.size());
+                for (Waypoint waypoint : saving.byName.values()) {
+                    writeString(out, waypoint.name());
+                    writeString(out, waypoint.level().location().toString());
+                    out.writeInt(waypoint.pos().getX());
+                    out.writeInt(waypoint.pos().getY());
+                    out.writeInt(waypoint.pos().getZ());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.error("Failed to save waypoints to {}", file, e);
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * The waypoints, by name and indexed by dimension. Never modified once built.
+     */
+    private record Contents(Map<String, Waypoint> byName, Map<ResourceKey<Level>, WaypointIndex> byLevel) {
+        private static final Contents EMPTY = new Contents(Map.of(), Map.of());
+
+        private static Contents of(Map<String, Waypoint> byName) {
+            Map<ResourceKey<Level>, List<Waypoint>> grouped = new HashMap<>();
+            for (Waypoint waypoint : byName.values()) {
+                grouped.computeIfAbsent(waypoint.level(), level -> new ArrayList<>()).add(waypoint);
+            }
+
+            Map<ResourceKey<Level>, WaypointIndex> byLevel = new HashMap<>();
+            grouped.forEach((level, waypoints) -> byLevel.put(level, new WaypointIndex(waypoints)));
+            return new Contents(Collections.unmodifiableMap(byName), byLevel);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package dev.xylopia.sionacs.integration.tardim.waypoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * An immutable k-d tree over the waypoints of one dimension.
+ *
+ * The tree is stored as a single array: each range's median is its node, with the lower half to
+ * the left and the upper half to the right, splitting on x, y and z in turn. Nearest-neighbour
+ * queries visit O(log n) nodes on average for evenly spread points.
+ */
+public final class WaypointIndex {
+    private final Waypoint[] points;
+
+    WaypointIndex(Collection<Waypoint> waypoints) {
+        this.points = waypoints.toArray(new Waypoint[0]);
+        build(0, points.length, 0);
+    }
+
+    private void build(int low, int high, int axis) {
+        if (high - low <= 1) {
+            return;
+        }
+
+        Arrays.sort(points, low, high, Comparator.comparingInt(point -> point.coordinate(axis)));
+        int mid = (low + high) >>> 1;
+        build(low, mid, (axis + 1) % 3);
+        build(mid + 1, high, (axis + 1) % 3);
+    }
+
+    /**
+     * Finds the waypoints closest to a position.
+     * @return Up to {@code count} matches, closest first
+     */
+    List<Match> nearest(BlockPos pos, int count) {
+        // Max-heap of the best matches so far, so the worst is cheap to replace
+        PriorityQueue<Match> best = new PriorityQueue<>(count + 1, Comparator.comparingDouble(Match::distanceSqr).reversed());
+        nearest(0, points.length, 0, pos, count, best);
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Comparator.comparingDouble(Match::distanceSqr));
+        return matches;
+    }
+
+    private void nearest(int low, int high, int axis, BlockPos pos, int count, PriorityQueue<Match> best) {
+        if (low >= high) {
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        Waypoint point = points[mid];
+        double distanceSqr = pos.distSqr(point.pos());
+        if (best.size() < count) {
+            best.add(new Match(point, distanceSqr));
+        } else if (distanceSqr < best.peek().distanceSqr()) {
+            best.poll();
+            best.add(new Match(point, distanceSqr));
+        }
+
+        // Search the side containing the position first, and the other only if it could be closer
+        long offset = (long) coordinate(pos, axis) - point.coordinate(axis);
+        int next = (axis + 1) % 3;
+        if (offset < 0) {
+            nearest(low, mid, next, pos, count, best);
+            if (best.size() < count || (double) offset * offset < best.peek().distanceSqr()) {
+                nearest(mid + 1, high, next, pos, count, best);
+            }
+        } else {
+            nearest(mid + 1, high, next, pos, count, best);
+            if (best.size() < count || (double) offset * offset < best.peek().distanceSqr()) {
+                nearest(low, mid, next, pos, count, best);
+            }
+        }
+    }
+
+    /**
+     * Finds the waypoints within a distance of a position.
+     * @return The matches, closest first
+     */
+    List<Match> inRadius(BlockPos pos, double radius) {
+        List<Match> matches = new ArrayList<>();
+        inRadius(0, points.length, 0, pos, radius * radius, matches);
+        matches.sort(Comparator.comparingDouble(Match::distanceSqr));
+        return matches;
+    }
+
+    private void inRadius(int low, int high, int axis, BlockPos pos, double radiusSqr, List<Match> matches) {
+        if (low >= high) {
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        Waypoint point = points[mid];
+        double distanceSqr = pos.distSqr(point.pos());
+        if (distanceSqr <= radiusSqr) {
+            matches.add(new Match(point, distanceSqr));
+        }
+
+        long offset = (long) coordinate(pos, axis) - point.coordinate(axis);
+        int next = (axis + 1) % 3;
+        if (offset <= 0 || (double) offset * offset <= radiusSqr) {
+            inRadius(low, mid, next, pos, radiusSqr, matches);
+        }
+        if (offset >= 0 || (double) offset * offset <= radiusSqr) {
+            inRadius(mid + 1, high, next, pos, radiusSqr, matches);
+        }
+    }
+
+    private static int coordinate(BlockPos pos, int axis) {
+        return switch (axis) {
+            case 0 -> pos.getX();
+            case 1 -> pos.getY();
+            default -> pos.getZ();
+        };
+    }
+
+    /**
+     * A waypoint found by a query, with its squared distance from the query position.
+     */
+    public record Match(Waypoint waypoint, double distanceSqr) {
+    }
+}
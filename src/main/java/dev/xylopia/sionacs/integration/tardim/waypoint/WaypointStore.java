@@ -0,0 +1,149 @@
+package dev.xylopia.sionacs.integration.tardim.waypoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import dan200.computercraft.api.lua.LuaException;
+import dev.xylopia.sionacs.utils.Constants;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waypoints saved by TARDIM owners, stored with the world.
+ *
+ * Each owner's {@link WaypointBook} lives in its own file under the world's data folder and is
+ * only read the first time it is used. Changed books are written on a background thread when the
+ * world saves, and once more when the server stops. Books can be used from any thread, so
+ * queries run on the calling computer's thread. One store exists per running server.
+ *
+ * A file which can't be read is renamed to {@code .corrupt} and the owner starts with an empty
+ * book. If it can't be moved out of the way either, the owner's waypoints stay unavailable until
+ * the server restarts, rather than being overwritten.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MOD_ID)
+public final class WaypointStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Constants.MOD_ID + ":WaypointStore");
+
+    @Nullable private static volatile WaypointStore instance = null;
+
+    private final Path directory;
+    private final Map<UUID, WaypointBook> books = new ConcurrentHashMap<>();
+    // Owners whose file couldn't be read or moved aside, so it isn't tried (and logged) again
+    private final Set<UUID> unreadable = ConcurrentHashMap.newKeySet();
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SionaCS Waypoint IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WaypointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the store for the running server.
+     * @throws LuaException If no server is running
+     */
+    public static WaypointStore get() throws LuaException {
+        WaypointStore store = instance;
+        if (store == null) {
+            throw new LuaException("Waypoints are not available");
+        }
+        return store;
+    }
+
+    /**
+     * Gets an owner's waypoints, loading them if this is the first use.
+     * @throws LuaException If the owner's file can't be read
+     */
+    public WaypointBook getBook(UUID owner) throws LuaException {
+        if (unreadable.contains(owner)) {
+            throw new LuaException("Could not load waypoints");
+        }
+        try {
+            return books.computeIfAbsent(owner, this::load);
+        } catch (UncheckedIOException e) {
+            unreadable.add(owner);
+            throw new LuaException("Could not load waypoints");
+        }
+    }
+
+    private WaypointBook load(UUID owner) {
+        Path file = directory.resolve(owner + ".bin");
+        try {
+            return WaypointBook.load(file);
+        } catch (IOException e) {
+            Path corrupt = directory.resolve(owner + ".bin.corrupt");
+            try {
+                Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+                LOGGER.error("Failed to load waypoints from {}, moved it to {} and started afresh", file, corrupt, e);
+                return WaypointBook.load(file);
+            } catch (IOException moveError) {
+                e.addSuppressed(moveError);
+                LOGGER.error("Failed to load waypoints from {}", file, e);
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void saveDirty() {
+        for (WaypointBook book : books.values()) {
+            if (book.isDirty()) {
+                io.execute(book::save);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        Path directory = event.getServer().getWorldPath(LevelResource.ROOT).resolve("data").resolve(Constants.MOD_ID + "_waypoints");
+        instance = new WaypointStore(directory.normalize());
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        // Every dimension saves at once, so only react to the overworld
+        WaypointStore store = instance;
+        if (store != null && event.getLevel() instanceof ServerLevel level && level.dimension() == Level.OVERWORLD) {
+            store.saveDirty();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        WaypointStore store = instance;
+        instance = null;
+        if (store == null) {
+            return;
+        }
+
+        store.saveDirty();
+        store.io.shutdown();
+        try {
+            if (!store.io.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("Timed out saving waypoints");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.xylopia.sionacs.mixins;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+
+import dev.xylopia.sionacs.core.apis.CRTBuffers;
+
+/**
+ * Mixin to end the CRT terminal buffers whenever Minecraft ends its main buffer source
+ */
+@Mixin(MultiBufferSource.BufferSource.class)
+public class BufferSourceMixin {
+
+    /**
+     * Terminals are written alongside the main buffer source, so they are drawn when it is,
+     * under the same projection and before anything clears the depth buffer
+     */
+    @Inject(method = "endBatch()V", at = @At("RETURN"))
+    private void afterEndBatch(CallbackInfo ci) {
+        if ((Object) this == Minecraft.getInstance().renderBuffers().bufferSource()) {
+            CRTBuffers.endBatch();
+        }
+    }
+}
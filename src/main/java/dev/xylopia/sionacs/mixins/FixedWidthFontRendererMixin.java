@@ -5,19 +5,22 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import org.joml.Matrix4f;
-import net.minecraft.client.Minecraft;
-import net.minecraft.resources.ResourceLocation;
+import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.util.FastColor.ARGB32;
 
 import dan200.computercraft.client.render.text.FixedWidthFontRenderer;
 import dan200.computercraft.client.render.text.FixedWidthFontRenderer.QuadEmitter;
 import dan200.computercraft.core.terminal.Terminal;
-import dan200.computercraft.core.terminal.TextBuffer;
+import dev.xylopia.sionacs.core.apis.CRTBuffers;
+import dev.xylopia.sionacs.core.apis.CRTLevelOfDetail;
 import dev.xylopia.sionacs.core.apis.CRTModeTracker;
-import dev.xylopia.sionacs.utils.Constants;
+import dev.xylopia.sionacs.core.apis.CRTRenderTypes;
+import dev.xylopia.sionacs.core.apis.CRTScanlines;
+import dev.xylopia.sionacs.core.apis.CRTTerminalCache;
 
 /**
  * Mixin to add CRT mode to ComputerCraft terminals
@@ -25,73 +28,58 @@ import dev.xylopia.sionacs.utils.Constants;
 @Mixin(value = FixedWidthFontRenderer.class, remap = false)
 public class FixedWidthFontRendererMixin {
 
-    // Thread-local storage to track the current terminal being rendered
-    private static final ThreadLocal<Terminal> CURRENT_TERMINAL = new ThreadLocal<>();
-    
-    // Custom CRT mode font texture
-    @SuppressWarnings("removal")
-    private static final ResourceLocation CRT_FONT = new ResourceLocation(Constants.MOD_ID, "textures/gui/crt_term_font.png");
-    
     // Define our own constant for full brightness to avoid RenderTypes dependency
     private static final int FULL_BRIGHTNESS = 15728880; // Same value as RenderTypes.FULL_BRIGHT_LIGHTMAP
 
-    @Shadow(remap = false)
-    @Final
-    private static float Z_OFFSET;
-
-    @Shadow(remap = false)
-    @Final
-    static float BACKGROUND_START;
+    // How far in front of the text the scanlines sit
+    private static final float SCANLINE_DEPTH = 0.003f;
 
     @Shadow(remap = false)
     @Final
-    static float BACKGROUND_END;
-    
-    @Shadow(remap = false)
-    private static void quad(QuadEmitter c, float x1, float y1, float x2, float y2, float z, int colour, float u1, float v1, float u2, float v2, int light) {
-        // Shadow method, implementation provided by ComputerCraft
-    }
+    private static float Z_OFFSET;
     
     /**
-     * Sets the current terminal before rendering begins
+     * Draws CRT terminals with the CRT font's render type instead of ComputerCraft's own
+     * The text goes into a buffer of its own which stays open across terminals,
+     * so every CRT terminal in a pass is drawn in one batch
      */
-    @Inject(method = "drawTerminal", at = @At("HEAD"), remap = false)
-    private static void beforeDrawTerminal(
+    @ModifyVariable(method = "drawTerminal", at = @At("HEAD"), argsOnly = true, remap = false)
+    private static QuadEmitter useCRTRenderType(
+            QuadEmitter original,
             QuadEmitter emitter, float x, float y,
-            Terminal terminal, 
-            float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize, 
-            CallbackInfo ci) {
-        
-        // Store the terminal in thread-local storage
-        CURRENT_TERMINAL.set(terminal);
+            Terminal terminal,
+            float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize) {
+
+        // While baking, the cache has already picked the CRT render type in its own buffers
+        if (!CRTModeTracker.isCRTModeEnabled(terminal) || CRTTerminalCache.isBaking()) {
+            return original;
+        }
+
+        return new QuadEmitter(original.poseMatrix(), CRTBuffers.getBuffer(CRTRenderTypes.CRT_TERMINAL));
     }
     
     /**
-     * Injects before drawing strings to bind our custom CRT font texture
+     * Draws unchanged CRT terminals from the terminal cache, rather than character by character
+     * Cancelling skips the RETURN injection below, so the overlay is drawn here too
      */
-    @Inject(
-        method = "drawString",
-        at = @At(
-            value = "HEAD"
-        ),
-        remap = false
-    )
-    private static void beforeDrawString(
-            QuadEmitter emitter, float x, float y, 
-            TextBuffer text, TextBuffer textColour,
-            dan200.computercraft.core.terminal.Palette palette, int light,
+    @Inject(method = "drawTerminal", at = @At("HEAD"), cancellable = true, remap = false)
+    private static void drawCachedTerminal(
+            QuadEmitter emitter, float x, float y,
+            Terminal terminal,
+            float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize,
             CallbackInfo ci) {
-        
-        Terminal terminal = CURRENT_TERMINAL.get();
-        if (terminal != null && CRTModeTracker.isCRTModeEnabled(terminal)) {
-            // Bind our custom font texture
-            Minecraft.getInstance().getTextureManager().bindForSetup(CRT_FONT);
-        } else {
-            // Bind the default font texture
-            Minecraft.getInstance().getTextureManager().bindForSetup(FixedWidthFontRenderer.FONT);
+
+        int crtState = CRTModeTracker.getState(terminal);
+        if (!CRTModeTracker.isEnabled(crtState)) {
+            return;
+        }
+
+        if (CRTTerminalCache.draw(emitter.poseMatrix(), x, y, terminal, topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize)) {
+            drawOverlay(emitter.poseMatrix(), x, y, terminal, topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize, crtState);
+            ci.cancel();
         }
     }
-    
+
     /**
      * Adds scanline effects after terminal rendering is complete
      */
@@ -102,42 +90,57 @@ public class FixedWidthFontRendererMixin {
             float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize, 
             CallbackInfo ci) {
         
-        // Only render scanlines if CRT mode is enabled for this terminal
-        if (terminal != null && CRTModeTracker.isCRTModeEnabled(terminal)) {
-            // Save the current transformation matrix
-            Matrix4f transformBackup = new Matrix4f(emitter.poseMatrix());
-            
-            // Move slightly forward to render on top
-            emitter.poseMatrix().translate(0, 0, Z_OFFSET);
-            
-            // Calculate terminal dimensions including margins
-            float height = terminal.getHeight() * FixedWidthFontRenderer.FONT_HEIGHT + topMarginSize + bottomMarginSize;
-            float width = terminal.getWidth() * FixedWidthFontRenderer.FONT_WIDTH + leftMarginSize + rightMarginSize;
-            
-            // Define scanline color (semi-transparent black) as ARGB int
-            // Alpha=60, R=0, G=0, B=0
-            int scanLineColor = ARGB32.color(60, 0, 0, 0);
-            
-            // Render scanlines with a spacing of 2 pixels
-            for (int i = 0; i < height; i += 2) {
-                float lineY = y + i - topMarginSize;
-                quad(
-                    emitter, 
-                    x - leftMarginSize, lineY, 
-                    x + width - 1.8f, lineY + 0.2f, 
-                    0.003f, 
-                    scanLineColor, 
-                    BACKGROUND_START, BACKGROUND_START, 
-                    BACKGROUND_END, BACKGROUND_END, 
-                    FULL_BRIGHTNESS // Use our constant instead of importing RenderTypes
-                );
-            }
-            
-            // Restore the original transformation matrix
-            emitter.poseMatrix().set(transformBackup);
+        // Only render scanlines if CRT mode is enabled for this terminal, and not into the cache
+        int crtState = CRTModeTracker.getState(terminal);
+        if (CRTModeTracker.isEnabled(crtState) && !CRTTerminalCache.isBaking()) {
+            drawOverlay(emitter.poseMatrix(), x, y, terminal, topMarginSize, bottomMarginSize, leftMarginSize, rightMarginSize, crtState);
         }
-        
-        // Clean up thread-local storage
-        CURRENT_TERMINAL.remove();
+    }
+
+    /**
+     * Draws the scanline overlay over a terminal
+     */
+    private static void drawOverlay(
+            Matrix4f pose, float x, float y,
+            Terminal terminal,
+            float topMarginSize, float bottomMarginSize, float leftMarginSize, float rightMarginSize,
+            int crtState) {
+
+        // Calculate terminal dimensions including margins
+        float height = terminal.getHeight() * FixedWidthFontRenderer.FONT_HEIGHT + topMarginSize + bottomMarginSize;
+        float width = terminal.getWidth() * FixedWidthFontRenderer.FONT_WIDTH + leftMarginSize + rightMarginSize;
+
+        // Far away or off screen terminals get less of the effect, or none
+        CRTLevelOfDetail.Detail detail = CRTLevelOfDetail.select(pose, x - leftMarginSize, y - topMarginSize, width, height);
+        if (detail == CRTLevelOfDetail.Detail.NONE) {
+            return;
+        }
+
+        // A tint samples only the dark row, so fade it to the scanlines' average darkness
+        boolean tinted = detail == CRTLevelOfDetail.Detail.TINTED;
+        int colour = CRTScanlines.colour(CRTModeTracker.getScanlineAlpha(crtState));
+        int alpha = tinted ? Math.round(ARGB32.alpha(colour) * CRTScanlines.TILE_COVERAGE) : ARGB32.alpha(colour);
+        int red = ARGB32.red(colour);
+        int green = ARGB32.green(colour);
+        int blue = ARGB32.blue(colour);
+
+        // Offset the depth directly rather than translating (and copying) the pose
+        float z = Z_OFFSET + SCANLINE_DEPTH;
+
+        // The overlay has a buffer of its own too, so asking for it doesn't end the text's batch
+        VertexConsumer overlay = CRTBuffers.getBuffer(CRTRenderTypes.SCANLINE_OVERLAY);
+
+        // One quad with a repeating scanline texture, rather than a quad per scanline
+        CRTScanlines.emitTiled(
+            (x1, y1, x2, y2, tiles) -> {
+                float repeats = tinted ? 0.0f : tiles;
+                overlay.vertex(pose, x1, y1, z).color(red, green, blue, alpha).uv(0, 0).uv2(FULL_BRIGHTNESS).endVertex();
+                overlay.vertex(pose, x1, y2, z).color(red, green, blue, alpha).uv(0, repeats).uv2(FULL_BRIGHTNESS).endVertex();
+                overlay.vertex(pose, x2, y2, z).color(red, green, blue, alpha).uv(1, repeats).uv2(FULL_BRIGHTNESS).endVertex();
+                overlay.vertex(pose, x2, y1, z).color(red, green, blue, alpha).uv(1, 0).uv2(FULL_BRIGHTNESS).endVertex();
+            },
+            x, y, width, height, topMarginSize, leftMarginSize,
+            CRTModeTracker.getScanlineSpacing(crtState)
+        );
     }
 }
@@ -0,0 +1,22 @@
+package dev.xylopia.sionacs.mixins;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+
+import dev.xylopia.sionacs.core.apis.CRTTerminalCache;
+
+/**
+ * Mixin to track the bound framebuffer, so the CRT cache never has to ask the driver for it
+ */
+@Mixin(value = GlStateManager.class, remap = false)
+public class GlStateManagerMixin {
+
+    @Inject(method = "_glBindFramebuffer(II)V", at = @At("HEAD"))
+    private static void onBindFramebuffer(int target, int framebuffer, CallbackInfo ci) {
+        CRTTerminalCache.onBindFramebuffer(target, framebuffer);
+    }
+}
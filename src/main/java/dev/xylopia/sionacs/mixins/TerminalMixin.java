@@ -0,0 +1,66 @@
+package dev.xylopia.sionacs.mixins;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import dan200.computercraft.core.terminal.Terminal;
+import dev.xylopia.sionacs.core.apis.CRTModeTracker;
+import dev.xylopia.sionacs.core.apis.CRTTerminal;
+
+/**
+ * Mixin to store CRT state on each terminal, so checking it is a plain field read
+ */
+@Mixin(value = Terminal.class, remap = false)
+public abstract class TerminalMixin implements CRTTerminal {
+
+    // Looked up from inside Terminal once merged, so it can see the field below
+    @Unique
+    private static final VarHandle SIONACS$CRT_STATE = sionacs$findCRTState();
+
+    @Unique
+    private volatile int sionacs$crtState = CRTModeTracker.DEFAULT_STATE;
+
+    // Bumped on every change; a lost increment still changes the value, which is all readers check
+    @Unique
+    private volatile int sionacs$version;
+
+    @Unique
+    private static VarHandle sionacs$findCRTState() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return lookup.findVarHandle(lookup.lookupClass(), "sionacs$crtState", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public int sionacs$getCRTState() {
+        return sionacs$crtState;
+    }
+
+    @Override
+    public int sionacs$getVersion() {
+        return sionacs$version;
+    }
+
+    /**
+     * Counts changes to the terminal, so cached renders know when they are stale
+     */
+    @Inject(method = "setChanged", at = @At("HEAD"), remap = false)
+    private void onChanged(CallbackInfo ci) {
+        sionacs$version++;
+    }
+
+    @Override
+    public boolean sionacs$compareAndSetCRTState(int expected, int updated) {
+        // Passed as Object so the call doesn't name this mixin class, which never exists at runtime
+        return SIONACS$CRT_STATE.compareAndSet((Object) this, expected, updated);
+    }
+}
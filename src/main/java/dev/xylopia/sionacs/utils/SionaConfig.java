@@ -1,5 +1,8 @@
 package dev.xylopia.sionacs.utils;
 
+// Java imports
+import java.util.List;
+
 // Forge imports
 import net.minecraftforge.common.ForgeConfigSpec;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -22,6 +25,20 @@ public class SionaConfig {
         public final ForgeConfigSpec.BooleanValue enableTardimPeripheral;
         public final ForgeConfigSpec.IntValue tardimPeripheralRange;
         public final ForgeConfigSpec.BooleanValue tardimPeripheralRequiresFuel;
+        public final ForgeConfigSpec.IntValue landingSearchRadius;
+        public final ForgeConfigSpec.IntValue landingSearchChunkBudget;
+        public final ForgeConfigSpec.IntValue prewarmRadius;
+        public final ForgeConfigSpec.IntValue saveIntervalTicks;
+        public final ForgeConfigSpec.BooleanValue enableTardimMetrics;
+        public final ForgeConfigSpec.IntValue fleetCommandsPerTick;
+        public final ForgeConfigSpec.IntValue tardimTickBudgetMicros;
+        public final ForgeConfigSpec.IntValue tardimComputerBudgetMicros;
+        public final ForgeConfigSpec.ConfigValue<List<? extends String>> tardimComputerWeights;
+        public final ForgeConfigSpec.BooleanValue enableGovernor;
+        public final ForgeConfigSpec.DoubleValue governorStrainedMspt;
+        public final ForgeConfigSpec.DoubleValue governorOverloadedMspt;
+        public final ForgeConfigSpec.IntValue governorMaxDeferTicks;
+        public final ForgeConfigSpec.IntValue routePlannerThreads;
         
         // Integration Settings
         public final ForgeConfigSpec.BooleanValue enableComputerCraftIntegration;
@@ -46,6 +63,63 @@ public class SionaConfig {
                     .comment("Whether the TARDIM peripheral requires TARDIM fuel for operation")
                     .define("tardimPeripheralRequiresFuel", true);
             
+            landingSearchRadius = builder
+                    .comment("How far from the destination to search for a landing site (in blocks)")
+                    .defineInRange("landingSearchRadius", 48, 0, 256);
+            
+            landingSearchChunkBudget = builder
+                    .comment("Maximum number of loaded chunks a landing site search may read")
+                    .defineInRange("landingSearchChunkBudget", 25, 1, 1024);
+            
+            prewarmRadius = builder
+                    .comment("Radius in chunks loaded around a destination as soon as it is set")
+                    .defineInRange("prewarmRadius", 2, 0, 8);
+            
+            saveIntervalTicks = builder
+                    .comment("Minimum time between saves of the same TARDIM's data (in ticks)")
+                    .defineInRange("saveIntervalTicks", 100, 1, 12000);
+            
+            enableTardimMetrics = builder
+                    .comment("Record call counts and timings for TARDIM peripheral methods, shown by /sionacs stats")
+                    .define("enableTardimMetrics", false);
+            
+            fleetCommandsPerTick = builder
+                    .comment("Maximum number of TARDIMs a fleet command may update each tick, across all fleets")
+                    .defineInRange("fleetCommandsPerTick", 4, 1, 64);
+            
+            tardimTickBudgetMicros = builder
+                    .comment("Server thread time per tick shared by all TARDIM peripheral calls (in microseconds). Calls past this wait for the next tick")
+                    .defineInRange("tardimTickBudgetMicros", 10000, 100, 50000);
+            
+            tardimComputerBudgetMicros = builder
+                    .comment("Server thread time per tick each computer may spend in TARDIM peripheral calls (in microseconds).",
+                             "A computer which overruns this waits for later ticks until the overrun has been paid back")
+                    .defineInRange("tardimComputerBudgetMicros", 2000, 10, 50000);
+            
+            tardimComputerWeights = builder
+                    .comment("Budget multipliers for particular computers, as \"computerId=weight\", e.g. [\"12=4\"]")
+                    .defineListAllowEmpty(List.of("tardimComputerWeights"), List::of, entry -> entry instanceof String);
+            
+            enableGovernor = builder
+                    .comment("Hold back expensive TARDIM calls (biome searches, landing) while the server is behind")
+                    .define("enableGovernor", true);
+            
+            governorStrainedMspt = builder
+                    .comment("Average tick time above which expensive TARDIM calls are deferred (in milliseconds)")
+                    .defineInRange("governorStrainedMspt", 40.0, 1.0, 1000.0);
+            
+            governorOverloadedMspt = builder
+                    .comment("Average tick time above which expensive TARDIM calls are rejected and moderate ones deferred (in milliseconds)")
+                    .defineInRange("governorOverloadedMspt", 50.0, 1.0, 1000.0);
+            
+            governorMaxDeferTicks = builder
+                    .comment("Longest a TARDIM call waits for the server to recover before it is rejected (in ticks)")
+                    .defineInRange("governorMaxDeferTicks", 100, 1, 6000);
+            
+            routePlannerThreads = builder
+                    .comment("Number of background threads searching for TARDIM routes. Takes effect on the next server start")
+                    .defineInRange("routePlannerThreads", 1, 1, 8);
+            
             builder.pop();
             
             // Integration Settings
@@ -67,6 +141,9 @@ public class SionaConfig {
         // Visual Settings
         public final ForgeConfigSpec.BooleanValue showDetailedTooltips;
         public final ForgeConfigSpec.BooleanValue enableFancyRendering;
+        public final ForgeConfigSpec.DoubleValue crtFullDetailDistance;
+        public final ForgeConfigSpec.DoubleValue crtEffectDistance;
+        public final ForgeConfigSpec.IntValue crtCacheMegabytes;
         
         // Sound Settings
         public final ForgeConfigSpec.BooleanValue enableCustomSounds;
@@ -88,6 +165,18 @@ public class SionaConfig {
                     .comment("Enable special visual effects and animations")
                     .define("enableFancyRendering", true);
             
+            crtFullDetailDistance = builder
+                    .comment("Distance within which CRT terminals get full effects such as scanlines (in blocks)")
+                    .defineInRange("crtFullDetailDistance", 16.0, 0.0, 256.0);
+            
+            crtEffectDistance = builder
+                    .comment("Distance within which CRT terminals get a cheap tint instead; beyond it they render plainly (in blocks)")
+                    .defineInRange("crtEffectDistance", 48.0, 0.0, 256.0);
+            
+            crtCacheMegabytes = builder
+                    .comment("Video memory for caching rendered CRT terminals, which are then only redrawn when they change (in megabytes, 0 to disable)")
+                    .defineInRange("crtCacheMegabytes", 64, 0, 1024);
+            
             builder.pop();
             
             // Sound Settings
@@ -0,0 +1,354 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.swdteam.tardim.TardimData;
+import com.swdteam.tardim.TardimData.Location;
+
+import dan200.computercraft.api.filesystem.Mount;
+import dan200.computercraft.api.filesystem.WritableMount;
+import dan200.computercraft.api.lua.IArguments;
+import dan200.computercraft.api.lua.ILuaCallback;
+import dan200.computercraft.api.lua.ILuaContext;
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.LuaTask;
+import dan200.computercraft.api.lua.MethodResult;
+import dan200.computercraft.api.lua.ObjectArguments;
+import dan200.computercraft.api.peripheral.IComputerAccess;
+import dan200.computercraft.api.peripheral.IPeripheral;
+import dan200.computercraft.api.peripheral.WorkMonitor;
+import dev.xylopia.sionacs.benchmark.BenchHost;
+import dev.xylopia.sionacs.integration.computercraft.TardimCallScheduler;
+import dev.xylopia.sionacs.integration.computercraft.TardimCost;
+import dev.xylopia.sionacs.integration.computercraft.TardimGovernor;
+import dev.xylopia.sionacs.integration.computercraft.TardimMethodTable;
+import dev.xylopia.sionacs.integration.computercraft.TardimMetrics;
+import dev.xylopia.sionacs.integration.computercraft.TardimPeripheral;
+import dev.xylopia.sionacs.integration.tardim.cc_api.TardimAPI;
+import net.minecraft.core.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A simulated computer running a script which calls the TARDIM peripheral in a loop.
+ *
+ * Calls go through the real {@link TardimPeripheral#callMethod}. When a call has to run on the
+ * main thread it yields, exactly as in ComputerCraft: the computer is parked until the simulated
+ * server delivers the {@code tardim_task} or {@code task_complete} event, and is then resumed on a
+ * computer thread.
+ * Operations which need a real level (demat, remat, biome search) can't be called for real, so
+ * stand-ins take their place, busy for a cost drawn from {@link SimCosts}. The stand-ins still take
+ * the peripheral's path for their method: the governor may turn them away, the call scheduler runs
+ * them under the method's cost tier, and their metrics are recorded against the method. Only the
+ * work is synthetic.
+ */
+final class SimComputer implements IComputerAccess, ILuaContext {
+    private static final String[] GETTERS = {
+        "getFuel", "isInFlight", "isLocked", "getCurrentLocation", "getTravelLocation",
+        "getCompanions", "calculateFuelForJourney", "getTimeEnteredFlight",
+    };
+    private static final int[] GETTER_INDICES = new int[GETTERS.length];
+    private static final int SET_TRAVEL_LOCATION = TardimMethodTable.indexOf("setTravelLocation");
+    private static final int DEMAT = TardimMethodTable.indexOf("demat");
+    private static final int REMAT = TardimMethodTable.indexOf("remat");
+    private static final int LOCATE_BIOME = TardimMethodTable.indexOf("locateBiome");
+    private static final IArguments NO_ARGS = new ObjectArguments();
+
+    static {
+        for (int i = 0; i < GETTERS.length; i++) {
+            GETTER_INDICES[i] = TardimMethodTable.indexOf(GETTERS[i]);
+        }
+    }
+
+    private final int id;
+    private final SimConfig config;
+    private final SimCosts costs;
+    private final SimServer server;
+    private final BenchHost host;
+    private final TardimPeripheral peripheral;
+    private final long[] flightStartTicks;
+    private final SimStats stats;
+    private final SplittableRandom random;
+
+    // State of the call in progress, guarded by step()
+    @Nullable private ILuaCallback callback = null;
+    @Nullable private volatile Object[] event = null;
+    @Nullable private LuaTask pendingTask = null;
+    private long pendingTaskId;
+    private SimStats.Kind kind;
+    private long callStart;
+    private boolean destinationSet = false;
+
+    private final LongAdder events = new LongAdder();
+
+    SimComputer(int id, SimConfig config, SimCosts costs, SimServer server, BenchHost host,
+                TardimPeripheral peripheral, long[] flightStartTicks, SimStats stats) {
+        this.id = id;
+        this.config = config;
+        this.costs = costs;
+        this.server = server;
+        this.host = host;
+        this.peripheral = peripheral;
+        this.flightStartTicks = flightStartTicks;
+        this.stats = stats;
+        this.random = new SplittableRandom(config.seed + id);
+    }
+
+    /**
+     * Runs this computer until its current call yields or completes. Called on a computer thread.
+     * A result can arrive before the call that yielded for it has returned, so steps are serialised.
+     */
+    synchronized void step() {
+        try {
+            MethodResult result;
+            Object[] pending = event;
+            if (callback != null && pending != null) {
+                event = null;
+                ILuaCallback resumed = callback;
+                callback = null;
+                result = resumed.resume(pending);
+            } else {
+                callStart = System.nanoTime();
+                result = startCall();
+            }
+
+            if (result.getCallback() != null) {
+                // Yielded: only hand the task to the main thread once the callback is stored,
+                // so the result can't arrive before this computer is ready for it
+                callback = result.getCallback();
+                LuaTask task = pendingTask;
+                pendingTask = null;
+                if (task != null) {
+                    server.submit(this, pendingTaskId, task);
+                }
+                return;
+            }
+            finish(false);
+        } catch (LuaException e) {
+            finish(true);
+        }
+    }
+
+    private void finish(boolean error) {
+        stats.record(kind, System.nanoTime() - callStart, error);
+        server.sleep(this, config.thinkTicks);
+    }
+
+    /**
+     * Delivers a main-thread task result. Called on the main thread.
+     */
+    void deliver(Object[] event) {
+        this.event = event;
+    }
+
+    private MethodResult startCall() throws LuaException {
+        int roll = random.nextInt(config.pollWeight + config.flightWeight + config.biomeWeight);
+        if (roll < config.pollWeight) {
+            kind = SimStats.Kind.POLL;
+            return peripheral.callMethod(this, this, GETTER_INDICES[random.nextInt(GETTER_INDICES.length)], NO_ARGS);
+        } else if (roll < config.pollWeight + config.flightWeight) {
+            kind = SimStats.Kind.FLIGHT;
+            return flightStep();
+        } else {
+            kind = SimStats.Kind.BIOME;
+            return standIn(LOCATE_BIOME, this::searchBiome);
+        }
+    }
+
+    /**
+     * One step of a flight: set a destination, take off, then land once the takeoff period is over.
+     * The destination is set through the real API; takeoff and landing are stand-ins.
+     */
+    private MethodResult flightStep() throws LuaException {
+        if (!destinationSet) {
+            destinationSet = true;
+            int x = random.nextInt(-100_000, 100_000);
+            int z = random.nextInt(-100_000, 100_000);
+            return peripheral.callMethod(this, this, SET_TRAVEL_LOCATION, new ObjectArguments((double) x, 64.0, (double) z));
+        }
+        // Chosen from the snapshot, as a script would; the stand-ins check the live state like the real methods
+        return host.getSnapshot().isInFlight() ? standIn(REMAT, this::remat) : standIn(DEMAT, this::demat);
+    }
+
+    /**
+     * Calls a stand-in for one of the peripheral's methods, as {@link TardimPeripheral#callMethod} calls the method.
+     */
+    private MethodResult standIn(int method, LuaTask work) throws LuaException {
+        boolean metrics = TardimMetrics.isEnabled();
+        if (metrics) {
+            TardimMetrics.recordCall(method, id);
+        }
+
+        TardimCost.Tier cost = TardimMethodTable.getCost(method);
+        if (TardimGovernor.isRejected(cost)) {
+            if (metrics) {
+                TardimMetrics.recordError(method);
+            }
+            throw new LuaException(TardimGovernor.SERVER_BUSY);
+        }
+
+        return TardimCallScheduler.submit(this, cost, () -> {
+            long start = metrics ? System.nanoTime() : 0L;
+            try {
+                return work.execute();
+            } catch (LuaException e) {
+                if (metrics) {
+                    TardimMetrics.recordError(method);
+                }
+                throw e;
+            } finally {
+                host.publishSnapshot();
+                if (metrics) {
+                    TardimMetrics.recordMainThread(method, System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    private Object[] demat() throws LuaException {
+        TardimData data = host.getTardimData();
+        if (data.isInFlight()) {
+            throw new LuaException("TARDIM is already in flight");
+        }
+
+        SimServer.spin(costs.sample("demat", config.dematCostUs, random));
+        if (data.getTravelLocation() == null) {
+            data.setTravelLocation(new Location(data.getCurrentLocation()));
+        }
+        data.setInFlight(true);
+        data.setTimeEnteredFlight();
+        flightStartTicks[data.getId()] = server.getTick();
+        return null;
+    }
+
+    private Object[] remat() throws LuaException {
+        TardimData data = host.getTardimData();
+        int index = data.getId();
+        if (!data.isInFlight()) {
+            throw new LuaException("TARDIM is not in flight");
+        }
+
+        if (server.getTick() - flightStartTicks[index] < config.takeoffTicks) {
+            throw new LuaException(TardimAPI.STILL_TAKING_OFF);
+        }
+
+        if (data.getTravelLocation() == null) {
+            throw new LuaException("No destination set");
+        }
+
+        SimServer.spin(costs.sample("remat", config.rematCostUs, random));
+        data.setCurrentLocation(data.getTravelLocation());
+        data.setTravelLocation(null);
+        data.setInFlight(false);
+        data.addFuel(data.getFuel() < 10.0 ? 90.0 : -1.0);
+        destinationSet = false;
+        return null;
+    }
+
+    private Object[] searchBiome() {
+        SimServer.spin(costs.sample("locateBiome", config.biomeCostUs, random));
+        TardimData data = host.getTardimData();
+        if (data.getTravelLocation() == null) {
+            data.setTravelLocation(new Location(data.getCurrentLocation()));
+        }
+        BlockPos pos = data.getTravelLocation().getPos();
+        data.getTravelLocation().setPosition(pos.getX() + random.nextInt(-6400, 6400), 64, pos.getZ() + random.nextInt(-6400, 6400));
+        return null;
+    }
+
+    long getEvents() {
+        return events.sum();
+    }
+
+    // === ILuaContext ===
+
+    @Override
+    public long issueMainThreadTask(LuaTask task) {
+        // Submitted by step() once the call has yielded
+        pendingTask = task;
+        pendingTaskId = server.nextTaskId();
+        return pendingTaskId;
+    }
+
+    // === IComputerAccess ===
+
+    @Override
+    public int getID() {
+        return id;
+    }
+
+    @Override
+    public void queueEvent(String event, @Nullable Object... arguments) {
+        events.increment();
+        if (TardimCallScheduler.EVENT.equals(event)) {
+            // A peripheral call has completed: resume with the event, as pullEvent would
+            Object[] pulled = new Object[1 + (arguments == null ? 0 : arguments.length)];
+            pulled[0] = event;
+            if (arguments != null) {
+                System.arraycopy(arguments, 0, pulled, 1, arguments.length);
+            }
+            deliver(pulled);
+            server.wake(this);
+        }
+    }
+
+    @Override
+    public String getAttachmentName() {
+        return "back";
+    }
+
+    @Nullable
+    @Override
+    public String mount(String desiredLocation, Mount mount, String driveName) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String mountWritable(String desiredLocation, WritableMount mount, String driveName) {
+        return null;
+    }
+
+    @Override
+    public void unmount(@Nullable String location) {
+    }
+
+    @Override
+    public Map<String, IPeripheral> getAvailablePeripherals() {
+        return Map.of(getAttachmentName(), peripheral);
+    }
+
+    @Nullable
+    @Override
+    public IPeripheral getAvailablePeripheral(String name) {
+        return getAttachmentName().equals(name) ? peripheral : null;
+    }
+
+    @Override
+    public WorkMonitor getMainThreadMonitor() {
+        return NoWorkMonitor.INSTANCE;
+    }
+
+    /**
+     * The peripheral doesn't use the work monitor; this one allows all work and ignores what is reported.
+     */
+    private enum NoWorkMonitor implements WorkMonitor {
+        INSTANCE;
+
+        @Override
+        public boolean canWork() {
+            return true;
+        }
+
+        @Override
+        public boolean shouldWork() {
+            return true;
+        }
+
+        @Override
+        public void trackWork(long time, TimeUnit unit) {
+        }
+    }
+}
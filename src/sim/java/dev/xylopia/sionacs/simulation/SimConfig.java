@@ -0,0 +1,94 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options for a simulation run, given on the command line as {@code --name=value}.
+ */
+final class SimConfig {
+    int computers = 1000;
+    int tardims = 100;
+    // ComputerCraft runs computers on one thread unless configured otherwise
+    int computerThreads = 1;
+    int seconds = 30;
+    // Ticks a computer waits between calls, like sleep(0.05) in a polling loop
+    int thinkTicks = 1;
+    // Main-thread task time allowed per tick, like ComputerCraft's max_main_global_time
+    double taskBudgetMs = 10.0;
+    long seed = 42L;
+
+    // Relative weights of each kind of call
+    int pollWeight = 90;
+    int flightWeight = 8;
+    int biomeWeight = 2;
+
+    // Simulated main-thread cost of operations which need a real level, unless replayed from exported metrics
+    long dematCostUs = 300;
+    long rematCostUs = 1500;
+    long biomeCostUs = 5000;
+    int takeoffTicks = 200;
+
+    // Metrics exported with /sionacs stats export, to draw the costs above from
+    String costs = null;
+    String json = null;
+
+    static SimConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        SimConfig config = new SimConfig();
+        config.computers = intOption(options, "computers", config.computers);
+        config.tardims = intOption(options, "tardims", config.tardims);
+        config.computerThreads = intOption(options, "computer-threads", config.computerThreads);
+        config.seconds = intOption(options, "seconds", config.seconds);
+        config.thinkTicks = intOption(options, "think-ticks", config.thinkTicks);
+        config.taskBudgetMs = Double.parseDouble(options.getOrDefault("task-budget-ms", Double.toString(config.taskBudgetMs)));
+        config.seed = Long.parseLong(options.getOrDefault("seed", Long.toString(config.seed)));
+        config.dematCostUs = intOption(options, "demat-cost-us", (int) config.dematCostUs);
+        config.rematCostUs = intOption(options, "remat-cost-us", (int) config.rematCostUs);
+        config.biomeCostUs = intOption(options, "biome-cost-us", (int) config.biomeCostUs);
+        config.takeoffTicks = intOption(options, "takeoff-ticks", config.takeoffTicks);
+        config.costs = options.get("costs");
+        config.json = options.get("json");
+
+        // e.g. --mix=poll:90,flight:8,biome:2
+        String mix = options.get("mix");
+        if (mix != null) {
+            config.pollWeight = config.flightWeight = config.biomeWeight = 0;
+            for (String part : mix.split(",")) {
+                String[] pair = part.split(":");
+                int weight = Integer.parseInt(pair[1]);
+                switch (pair[0]) {
+                    case "poll" -> config.pollWeight = weight;
+                    case "flight" -> config.flightWeight = weight;
+                    case "biome" -> config.biomeWeight = weight;
+                    default -> throw new IllegalArgumentException("Unknown call kind " + pair[0]);
+                }
+            }
+        }
+
+        if (config.computers < 1 || config.tardims < 1 || config.computerThreads < 1 || config.seconds < 1
+                || config.pollWeight + config.flightWeight + config.biomeWeight <= 0) {
+            throw new IllegalArgumentException("Invalid simulation options");
+        }
+        return config;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        String value = options.get(name);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d computers on %d threads, %d TARDIMs, %ds, think %d ticks, mix poll:%d flight:%d biome:%d",
+                computers, computerThreads, tardims, seconds, thinkTicks, pollWeight, flightWeight, biomeWeight);
+    }
+}
@@ -0,0 +1,89 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Main-thread costs of the operations the simulation can't run for real.
+ *
+ * Given metrics exported from a real server with {@code /sionacs stats export}, each cost is drawn
+ * from that method's recorded histogram: a bucket is picked by how many calls fell into it, then a
+ * time uniformly within it. Methods missing from the export fall back to the fixed cost options.
+ */
+final class SimCosts {
+    // Cumulative call counts per histogram bucket, by method name
+    private final Map<String, long[]> histograms;
+
+    private SimCosts(Map<String, long[]> histograms) {
+        this.histograms = histograms;
+    }
+
+    static SimCosts fixed() {
+        return new SimCosts(Map.of());
+    }
+
+    static SimCosts load(Path file) throws IOException {
+        JsonObject methods;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            methods = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("methods");
+        }
+
+        Map<String, long[]> histograms = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : methods.entrySet()) {
+            JsonArray histogram = entry.getValue().getAsJsonObject().getAsJsonArray("histogram");
+            long[] cumulative = new long[histogram.size()];
+            long total = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                total += histogram.get(i).getAsLong();
+                cumulative[i] = total;
+            }
+            if (total > 0) {
+                histograms.put(entry.getKey(), cumulative);
+            }
+        }
+        return new SimCosts(histograms);
+    }
+
+    /**
+     * Draws a cost for a method, in nanoseconds.
+     *
+     * @param method         The method's Lua name
+     * @param fallbackMicros The cost to use if there are no samples for the method
+     */
+    long sample(String method, long fallbackMicros, SplittableRandom random) {
+        long[] cumulative = histograms.get(method);
+        if (cumulative == null) {
+            return fallbackMicros * 1000L;
+        }
+
+        long pick = random.nextLong(cumulative[cumulative.length - 1]);
+        int bucket = 0;
+        while (cumulative[bucket] <= pick) {
+            bucket++;
+        }
+
+        // Bucket i holds times in [2^(i-1), 2^i) ns
+        if (bucket == 0) {
+            return 0L;
+        }
+        long low = 1L << (bucket - 1);
+        return low + random.nextLong(low);
+    }
+
+    /**
+     * Checks whether a method's costs come from exported metrics rather than the fixed options.
+     */
+    boolean isSampled(String method) {
+        return histograms.containsKey(method);
+    }
+}
@@ -0,0 +1,204 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import dan200.computercraft.api.lua.LuaException;
+import dan200.computercraft.api.lua.LuaTask;
+import dev.xylopia.sionacs.benchmark.BenchHost;
+import dev.xylopia.sionacs.integration.computercraft.TardimCallScheduler;
+import dev.xylopia.sionacs.integration.computercraft.TardimGovernor;
+import dev.xylopia.sionacs.integration.tardim.TardimStateEvents;
+import dev.xylopia.sionacs.integration.tardim.scheduler.HierarchicalTimingWheel;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * The simulated server thread.
+ * Each tick it wakes computers whose think time is over, runs the peripheral's call scheduler and
+ * then other queued main-thread tasks within the task budget, and publishes snapshots and state
+ * events for every TARDIM, as the real peripheral tracker does.
+ */
+final class SimServer {
+    static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final SimConfig config;
+    private final List<BenchHost> hosts;
+    private final List<TardimStateEvents> events;
+    private final Queue<SimComputer> runQueue;
+
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    private final Queue<Sleeper> sleepers = new ConcurrentLinkedQueue<>();
+    private final HierarchicalTimingWheel<SimComputer> wheel = new HierarchicalTimingWheel<>(0L);
+    private final AtomicLong nextTaskId = new AtomicLong();
+    private final Deque<Task> deferred = new ArrayDeque<>();
+
+    private volatile long tick = 0L;
+    private final LongArrayList tickNanos = new LongArrayList();
+    private long tasksRun = 0L;
+    private long overruns = 0L;
+
+    SimServer(SimConfig config, List<BenchHost> hosts, List<TardimStateEvents> events, Queue<SimComputer> runQueue) {
+        this.config = config;
+        this.hosts = hosts;
+        this.events = events;
+        this.runQueue = runQueue;
+    }
+
+    long getTick() {
+        return tick;
+    }
+
+    /**
+     * Allocates an ID for a main-thread task, as passed back in the task_complete event.
+     */
+    long nextTaskId() {
+        return nextTaskId.incrementAndGet();
+    }
+
+    /**
+     * Queues a task for the main thread. Called from computer threads.
+     */
+    void submit(SimComputer computer, long id, LuaTask task) {
+        tasks.add(new Task(id, computer, task));
+    }
+
+    /**
+     * Makes a computer runnable again straight away, once a result has been delivered to it.
+     */
+    void wake(SimComputer computer) {
+        runQueue.add(computer);
+    }
+
+    /**
+     * Makes a computer runnable again after a number of ticks. Called from computer threads.
+     */
+    void sleep(SimComputer computer, int ticks) {
+        if (ticks <= 0) {
+            runQueue.add(computer);
+        } else {
+            sleepers.add(new Sleeper(computer, ticks));
+        }
+    }
+
+    /**
+     * Runs ticks in real time until the given number have passed, carrying on from the last run.
+     */
+    void run(long ticks) {
+        long budget = (long) (config.taskBudgetMs * 1_000_000.0);
+        long nextTick = System.nanoTime();
+
+        long end = tick + ticks;
+        for (long t = tick + 1; t <= end; t++) {
+            long start = System.nanoTime();
+            tick = t;
+
+            Sleeper sleeper;
+            while ((sleeper = sleepers.poll()) != null) {
+                wheel.schedule(sleeper.ticks, sleeper.computer);
+            }
+            wheel.advanceTo(t, runQueue::add);
+
+            // Peripheral calls go through the mod's own scheduler, other tasks through ComputerCraft's
+            TardimCallScheduler.runTick();
+            runTasks(start, budget);
+
+            for (int i = 0; i < hosts.size(); i++) {
+                BenchHost host = hosts.get(i);
+                host.publishSnapshot();
+                events.get(i).update(host.getSnapshot(), host.getComputers());
+            }
+
+            long elapsed = System.nanoTime() - start;
+            TardimGovernor.recordTick(elapsed);
+            tickNanos.add(elapsed);
+            if (elapsed > TICK_NANOS) {
+                overruns++;
+            }
+
+            // Sleep until the next tick, or carry on straight away if this one overran
+            nextTick = Math.max(nextTick + TICK_NANOS, System.nanoTime());
+            long wait;
+            while ((wait = nextTick - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    private void runTasks(long start, long budget) {
+        // Tasks left over from the last tick go first, then new ones, until the budget is spent
+        while (System.nanoTime() - start < budget) {
+            Task task = deferred.pollFirst();
+            if (task == null) {
+                task = tasks.poll();
+            }
+            if (task == null) {
+                return;
+            }
+            run(task);
+        }
+
+        Task task;
+        while ((task = tasks.poll()) != null) {
+            deferred.addLast(task);
+        }
+    }
+
+    private void run(Task task) {
+        Object[] event;
+        try {
+            Object[] results = task.task.execute();
+            int count = results == null ? 0 : results.length;
+            event = new Object[3 + count];
+            if (count > 0) {
+                System.arraycopy(results, 0, event, 3, count);
+            }
+            event[2] = true;
+        } catch (LuaException e) {
+            event = new Object[] { null, null, false, e.getMessage() };
+        }
+        event[0] = "task_complete";
+        event[1] = task.id;
+
+        tasksRun++;
+        task.computer.deliver(event);
+        runQueue.add(task.computer);
+    }
+
+    LongArrayList getTickNanos() {
+        return tickNanos;
+    }
+
+    long getTasksRun() {
+        return tasksRun;
+    }
+
+    long getOverruns() {
+        return overruns;
+    }
+
+    int getBacklog() {
+        return deferred.size() + tasks.size();
+    }
+
+    /**
+     * Spins the current thread for a simulated operation cost.
+     */
+    static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private record Task(long id, SimComputer computer, LuaTask task) {
+    }
+
+    private record Sleeper(SimComputer computer, int ticks) {
+    }
+}
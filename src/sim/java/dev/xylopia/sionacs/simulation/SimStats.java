@@ -0,0 +1,84 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Call latencies recorded by the simulated computers.
+ * Each computer thread records into its own lists, which are only merged once the run is over.
+ */
+final class SimStats {
+    enum Kind {
+        POLL, FLIGHT, BIOME
+    }
+
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Recorder> local = ThreadLocal.withInitial(this::newRecorder);
+    private final Map<Kind, LongAdder> errors = new EnumMap<>(Kind.class);
+
+    SimStats() {
+        for (Kind kind : Kind.values()) {
+            errors.put(kind, new LongAdder());
+        }
+    }
+
+    private Recorder newRecorder() {
+        Recorder recorder = new Recorder();
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    /**
+     * Records a completed call, from the start of the call to its result reaching the computer.
+     */
+    void record(Kind kind, long nanos, boolean error) {
+        local.get().latencies[kind.ordinal()].add(nanos);
+        if (error) {
+            errors.get(kind).increment();
+        }
+    }
+
+    /**
+     * Merges the latencies of every thread for one kind of call, sorted. Only call once the run is over.
+     */
+    long[] sorted(Kind kind) {
+        LongArrayList merged = new LongArrayList();
+        for (Recorder recorder : recorders) {
+            merged.addAll(recorder.latencies[kind.ordinal()]);
+        }
+        long[] values = merged.toLongArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    long getErrors(Kind kind) {
+        return errors.get(kind).sum();
+    }
+
+    /**
+     * @return The value at the given fraction of a sorted array, or 0 if it is empty
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static final class Recorder {
+        private final LongArrayList[] latencies = new LongArrayList[Kind.values().length];
+
+        private Recorder() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LongArrayList();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package dev.xylopia.sionacs.simulation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import dev.xylopia.sionacs.benchmark.BenchHost;
+import dev.xylopia.sionacs.benchmark.BenchTardimData;
+import dev.xylopia.sionacs.integration.computercraft.TardimPeripheral;
+import dev.xylopia.sionacs.integration.tardim.TardimStateEvents;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Headless load simulation of many computers driving TARDIM peripherals, run with "./gradlew simulate".
+ *
+ * Computers run on a pool of computer threads and call the real peripheral, while a simulated
+ * server thread ticks at 20 TPS, running main-thread tasks and publishing snapshots and events.
+ * At the end it reports call throughput, main-thread time per tick, allocation rate and call latency.
+ */
+public final class TardimLoadSimulation {
+    private TardimLoadSimulation() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimConfig config = SimConfig.parse(args);
+        System.out.println("Simulating " + config);
+        SimCosts costs = config.costs == null ? SimCosts.fixed() : SimCosts.load(Path.of(config.costs));
+        for (String method : List.of("demat", "remat", "locateBiome")) {
+            System.out.println("Cost of " + method + ": " + (costs.isSampled(method) ? "from " + config.costs : "fixed"));
+        }
+
+        List<BenchHost> hosts = new ArrayList<>(config.tardims);
+        List<TardimStateEvents> events = new ArrayList<>(config.tardims);
+        List<TardimPeripheral> peripherals = new ArrayList<>(config.tardims);
+        for (int i = 0; i < config.tardims; i++) {
+            BenchHost host = new BenchHost(new BenchTardimData(i, "Owner" + i, 2));
+            hosts.add(host);
+            events.add(new TardimStateEvents());
+            peripherals.add(new TardimPeripheral(host));
+        }
+
+        BlockingQueue<SimComputer> runQueue = new LinkedBlockingQueue<>();
+        SimServer server = new SimServer(config, hosts, events, runQueue);
+        SimStats stats = new SimStats();
+        long[] flightStartTicks = new long[config.tardims];
+
+        List<SimComputer> computers = new ArrayList<>(config.computers);
+        for (int i = 0; i < config.computers; i++) {
+            int tardim = i % config.tardims;
+            SimComputer computer = new SimComputer(i, config, costs, server, hosts.get(tardim), peripherals.get(tardim), flightStartTicks, stats);
+            peripherals.get(tardim).attach(computer);
+            computers.add(computer);
+        }
+
+        // The first tick publishes every snapshot before any computer starts
+        server.run(1);
+        runQueue.addAll(computers);
+
+        List<Thread> threads = new ArrayList<>(config.computerThreads);
+        for (int i = 0; i < config.computerThreads; i++) {
+            Thread thread = new Thread(() -> runComputers(runQueue), "Computer-Thread-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.forEach(Thread::start);
+        long[] allocatedBefore = allocated(threadBean, threads);
+        long start = System.nanoTime();
+
+        server.run((long) config.seconds * 20);
+
+        long elapsed = System.nanoTime() - start;
+        long[] allocatedAfter = allocated(threadBean, threads);
+        threads.forEach(Thread::interrupt);
+
+        report(config, server, stats, computers, elapsed,
+                allocatedAfter[0] - allocatedBefore[0], allocatedAfter[1] - allocatedBefore[1]);
+    }
+
+    private static void runComputers(BlockingQueue<SimComputer> runQueue) {
+        try {
+            while (true) {
+                runQueue.take().step();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Bytes allocated so far by the computer threads and by the server (current) thread
+     */
+    private static long[] allocated(com.sun.management.ThreadMXBean threadBean, List<Thread> threads) {
+        long computer = 0L;
+        for (Thread thread : threads) {
+            computer += Math.max(0L, threadBean.getThreadAllocatedBytes(thread.getId()));
+        }
+        long main = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        return new long[] { computer, main };
+    }
+
+    private static void report(SimConfig config, SimServer server, SimStats stats, List<SimComputer> computers,
+                               long elapsedNanos, long computerBytes, long serverBytes) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("config", config.toString());
+        results.put("seconds", seconds);
+
+        long totalCalls = 0L;
+        Map<String, Object> calls = new LinkedHashMap<>();
+        for (SimStats.Kind kind : SimStats.Kind.values()) {
+            long[] sorted = stats.sorted(kind);
+            totalCalls += sorted.length;
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("calls", sorted.length);
+            entry.put("errors", stats.getErrors(kind));
+            entry.put("p50Ms", SimStats.percentile(sorted, 0.50) / 1e6);
+            entry.put("p99Ms", SimStats.percentile(sorted, 0.99) / 1e6);
+            entry.put("p999Ms", SimStats.percentile(sorted, 0.999) / 1e6);
+            calls.put(kind.name().toLowerCase(Locale.ROOT), entry);
+        }
+        results.put("callsPerSecond", totalCalls / seconds);
+        results.put("calls", calls);
+
+        // Skip the warm-up tick which published the first snapshots
+        LongArrayList ticks = server.getTickNanos();
+        long[] tickTimes = ticks.subList(1, ticks.size()).toLongArray();
+        double mean = 0.0;
+        for (long tick : tickTimes) {
+            mean += tick;
+        }
+        mean = tickTimes.length == 0 ? 0.0 : mean / tickTimes.length;
+        Arrays.sort(tickTimes);
+
+        Map<String, Object> tick = new LinkedHashMap<>();
+        tick.put("meanMs", mean / 1e6);
+        tick.put("p50Ms", SimStats.percentile(tickTimes, 0.50) / 1e6);
+        tick.put("p99Ms", SimStats.percentile(tickTimes, 0.99) / 1e6);
+        tick.put("maxMs", tickTimes.length == 0 ? 0.0 : tickTimes[tickTimes.length - 1] / 1e6);
+        tick.put("overruns", server.getOverruns());
+        tick.put("tasksRun", server.getTasksRun());
+        tick.put("backlog", server.getBacklog());
+        results.put("mainThread", tick);
+
+        long eventCount = 0L;
+        for (SimComputer computer : computers) {
+            eventCount += computer.getEvents();
+        }
+        results.put("eventsQueued", eventCount);
+
+        Map<String, Object> allocation = new LinkedHashMap<>();
+        allocation.put("computerMBPerSecond", computerBytes / seconds / (1024.0 * 1024.0));
+        allocation.put("serverMBPerSecond", serverBytes / seconds / (1024.0 * 1024.0));
+        allocation.put("bytesPerCall", totalCalls == 0 ? 0.0 : (double) (computerBytes + serverBytes) / totalCalls);
+        results.put("allocation", allocation);
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        String json = gson.toJson(results);
+        System.out.println(json);
+
+        if (config.json != null) {
+            Path path = Path.of(config.json);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                writer.write(json);
+            }
+            System.out.println("Results written to " + path.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dev.xylopia.sionacs.integration.tardim.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.Test;
+
+import dan200.computercraft.api.lua.LuaException;
+import dev.xylopia.sionacs.integration.tardim.TardimHost;
+
+/**
+ * Checks that scheduled actions can only be cancelled by the peripheral which scheduled them.
+ * Nothing here runs an action, so the hosts and APIs are never called.
+ */
+class TardimActionSchedulerTest {
+    private static TardimHost host() {
+        return (TardimHost) Proxy.newProxyInstance(TardimHost.class.getClassLoader(), new Class<?>[] { TardimHost.class },
+            (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    @Test
+    void ownerCanCancel() throws LuaException {
+        TardimActionScheduler scheduler = new TardimActionScheduler(0L);
+        TardimHost owner = host();
+        int id = scheduler.schedule(TardimActionScheduler.Kind.LOCK, null, owner, 100L);
+
+        assertTrue(scheduler.cancel(id, owner));
+        assertFalse(scheduler.cancel(id, owner), "An action can only be cancelled once");
+    }
+
+    @Test
+    void otherHostCannotCancel() throws LuaException {
+        TardimActionScheduler scheduler = new TardimActionScheduler(0L);
+        TardimHost owner = host();
+        TardimHost other = host();
+        int id = scheduler.schedule(TardimActionScheduler.Kind.REMAT_AT, null, owner, 100L);
+
+        assertFalse(scheduler.cancel(id, other), "Another TARDIM's peripheral cancelled the action");
+        assertTrue(scheduler.cancel(id, owner), "The action was lost after a refused cancel");
+    }
+
+    @Test
+    void unknownIdIsNotCancelled() {
+        TardimActionScheduler scheduler = new TardimActionScheduler(0L);
+        assertFalse(scheduler.cancel(42, host()));
+    }
+}